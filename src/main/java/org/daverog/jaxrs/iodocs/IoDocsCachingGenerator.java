@@ -0,0 +1,355 @@
+package org.daverog.jaxrs.iodocs;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Type;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.IOUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * An I/O Docs generator that keeps the generated JSON in a local directory,
+ * so that a restart with unchanged endpoint classes does not need to use
+ * reflection to regenerate it.
+ *
+ * The cache key is a SHA-256 hash of the bytecode of the endpoint classes,
+ * their superclasses, interfaces and sub-resources (and of the generator
+ * itself) and the settings of the config.
+ * Any change to these produces a new key, so stale entries are never served.
+ *
+ * Finding the superclasses, interfaces and sub-resources needs reflection, so
+ * their names are stored in a manifest, keyed by the endpoints and the config
+ * alone. When the manifest exists, the key is computed by loading the bytecode
+ * of the listed classes as resources, without reflecting over their methods.
+ * If one of those classes now reaches a different set of classes, its own
+ * bytecode has changed, so the key misses and the manifest is rewritten.
+ *
+ * The diagnostics found when the JSON was generated are stored alongside it,
+ * and are reported to the linter again whenever the JSON is served from the
+ * cache. A fail-fast linter therefore fails on a cached API just as it would
+ * on a fresh generation, although a fresh generation is always completed
+ * (so that it can be cached) before the linter is told of any errors.
+ */
+public class IoDocsCachingGenerator extends IoDocsGenerator {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final Type diagnosticsType = 
+			new TypeToken<List<IoDocsDiagnostic>>(){}.getType();
+
+	private static final Type manifestType = 
+			new TypeToken<List<String>>(){}.getType();
+
+	private static final Class<?>[] generatorClasses = new Class<?>[]{
+		IoDocsGenerator.class,
+		IoDocsCachingGenerator.class,
+		IoDocsMethod.class,
+		IoDocsParameter.class,
+		IoDocsConfig.class,
+		IoDocsLinter.class,
+		IoDocsDiagnostic.class,
+		IoDocsName.class,
+		IoDocsIgnore.class,
+		IoDocsRequired.class,
+		IoDocsEnum.class,
+		IoDocsEnumDescriptions.class,
+		IoDocsDefaultBoolean.class,
+		IoDocsDefaultInteger.class,
+		IoDocsDefaultString.class,
+		IoDocsDoNotExtend.class,
+		IoDocsEntitlement.class
+	};
+
+	private static final SortedSet<String> generatorClassNames = getGeneratorClassNames();
+
+	private static final Pattern cacheFileName = 
+			Pattern.compile("[0-9a-f]{64}(\\.classes|\\.diagnostics)?\\.json");
+
+	private File cacheDirectory;
+
+	/**
+	 * @param cacheDirectory The directory in which to store generated JSON,
+	 *        which will be created if it does not exist. Whenever JSON is stored,
+	 *        the entries for any other key are deleted, so each API (and config)
+	 *        should have a directory of its own
+	 */
+	public IoDocsCachingGenerator(File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	@Override
+	public String generateIoDocs(IoDocsConfig config, Class<?>[] endpoints, IoDocsLinter linter) {
+		String endpointKey = getEndpointKey(config, endpoints);
+		if (endpointKey == null)
+			return super.generateIoDocs(config, endpoints, linter);
+
+		File manifestFile = new File(cacheDirectory, endpointKey + ".classes.json");
+		List<String> classNames = readManifest(manifestFile);
+		String key = classNames == null ? null : getKey(endpointKey, classNames, endpoints);
+		if (key != null) {
+			String ioDocs = readFromCache(key, linter);
+			if (ioDocs != null) return ioDocs;
+		}
+
+		IoDocsLinter generationLinter = new IoDocsLinter();
+		String ioDocs = super.generateIoDocs(config, endpoints, generationLinter);
+		classNames = Lists.newArrayList(getResourceClasses(endpoints).keySet());
+		key = getKey(endpointKey, classNames, endpoints);
+		//The diagnostics are written first, as the JSON is only served if both exist
+		if (key != null &&
+				write(new File(cacheDirectory, key + ".diagnostics.json"), 
+					new Gson().toJson(generationLinter.getDiagnostics())) &&
+				write(new File(cacheDirectory, key + ".json"), ioDocs) &&
+				write(manifestFile, new Gson().toJson(classNames)))
+			deleteOtherEntries(endpointKey, key);
+		linter.replay(generationLinter.getDiagnostics());
+		return ioDocs;
+	}
+
+	/**
+	 * @return The hex encoded cache key, found by reflecting over the endpoints
+	 *         rather than from a manifest, or null if it cannot be computed
+	 */
+	String getKey(IoDocsConfig config, Class<?>[] endpoints) {
+		String endpointKey = getEndpointKey(config, endpoints);
+		if (endpointKey == null) return null;
+		return getKey(endpointKey, getResourceClasses(endpoints).keySet(), endpoints);
+	}
+
+	/**
+	 * @return The hex encoded key of the endpoints and config, extended with
+	 *         the bytecode of the named classes, or null if the bytecode of one
+	 *         of the classes cannot be found (for example, a generated class)
+	 */
+	private String getKey(String endpointKey, Collection<String> classNames, Class<?>[] endpoints) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			updateWithString(digest, endpointKey);
+			for (String className : classNames) {
+				if (!updateWithBytecode(digest, className, endpoints)) return null;
+			}
+			return toHex(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			return null;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return The hex encoded key of the generator, the endpoint classes and
+	 *         the config, or null if it cannot be computed
+	 */
+	private String getEndpointKey(IoDocsConfig config, Class<?>[] endpoints) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (String generatorClassName : generatorClassNames) {
+				if (!updateWithBytecode(digest, generatorClassName, generatorClasses)) return null;
+			}
+			for (Class<?> endpoint : endpoints) {
+				if (!updateWithBytecode(digest, endpoint)) return null;
+			}
+			updateWithString(digest, config.getEnvelopePrefix());
+			updateWithString(digest, config.getEnvelopeSuffix());
+			updateWithString(digest, config.getResourceGrouping() + "");
+			updateWithString(digest, config.getResourceName());
+			updateWithString(digest, config.isPretty() + "");
+			updateWithString(digest, new Gson().toJson(config.getExtensionParameters()));
+			return toHex(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			return null;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private boolean updateWithBytecode(MessageDigest digest, Class<?> clazz) throws IOException {
+		String className = clazz.getName();
+		return updateWithBytecode(digest, className, clazz.getResourceAsStream(
+				className.substring(className.lastIndexOf('.') + 1) + ".class"));
+	}
+
+	/**
+	 * Loads the bytecode of a class by name, from the class loader of the 
+	 * first of the loading classes that can find it, without loading the 
+	 * class itself
+	 */
+	private boolean updateWithBytecode(MessageDigest digest, String className, Class<?>[] loadingClasses) 
+			throws IOException {
+		String resourceName = getResourceName(className);
+		InputStream bytecode = null;
+		for (int i = 0; bytecode == null && i < loadingClasses.length; i++) {
+			bytecode = loadingClasses[i].getResourceAsStream(resourceName);
+		}
+		return updateWithBytecode(digest, className, bytecode);
+	}
+
+	private boolean updateWithBytecode(MessageDigest digest, String className, InputStream bytecode) 
+			throws IOException {
+		if (bytecode == null) return false;
+		try {
+			updateWithString(digest, className);
+			digest.update(IOUtils.toByteArray(bytecode));
+			return true;
+		} finally {
+			IOUtils.closeQuietly(bytecode);
+		}
+	}
+
+	/**
+	 * @return The names of the generator classes, with their nested and 
+	 *         anonymous classes, which all affect the generated JSON
+	 */
+	static SortedSet<String> getGeneratorClassNames() {
+		SortedSet<String> classNames = Sets.newTreeSet();
+		for (Class<?> generatorClass : generatorClasses) {
+			addGeneratorClassNames(classNames, generatorClass);
+		}
+		return classNames;
+	}
+
+	private static void addGeneratorClassNames(SortedSet<String> classNames, Class<?> generatorClass) {
+		classNames.add(generatorClass.getName());
+		for (Class<?> nestedClass : generatorClass.getDeclaredClasses()) {
+			addGeneratorClassNames(classNames, nestedClass);
+		}
+		//Anonymous classes are numbered from 1 by the compiler
+		for (int i = 1; ; i++) {
+			String anonymousClassName = generatorClass.getName() + "$" + i;
+			if (generatorClass.getResource(getResourceName(anonymousClassName)) == null) return;
+			classNames.add(anonymousClassName);
+		}
+	}
+
+	private static String getResourceName(String className) {
+		return "/" + className.replace('.', '/') + ".class";
+	}
+
+	private void updateWithString(MessageDigest digest, String value)
+			throws UnsupportedEncodingException {
+		//Separate each value so that adjacent values cannot run together
+		digest.update((value == null ? "\u0000" : value + "\u0000").getBytes("UTF-8"));
+	}
+
+	/**
+	 * @return The cached JSON, having replayed its diagnostics to the linter,
+	 *         or null if it is not in the cache
+	 */
+	private String readFromCache(String key, IoDocsLinter linter) {
+		File cacheFile = new File(cacheDirectory, key + ".json");
+		File diagnosticsFile = new File(cacheDirectory, key + ".diagnostics.json");
+		if (!cacheFile.isFile() || !diagnosticsFile.isFile()) return null;
+		List<IoDocsDiagnostic> diagnostics = null;
+		String ioDocs = null;
+		try {
+			diagnostics = new Gson().fromJson(read(diagnosticsFile), diagnosticsType);
+			ioDocs = read(cacheFile);
+		} catch (IOException e) {
+			//Fall through and regenerate
+		} catch (JsonParseException e) {
+			//Fall through and regenerate
+		}
+		if (diagnostics == null || ioDocs == null) return null;
+		linter.replay(diagnostics);
+		return ioDocs;
+	}
+
+	/**
+	 * @return The class names in the manifest, or null if it cannot be read
+	 */
+	private List<String> readManifest(File manifestFile) {
+		if (!manifestFile.isFile()) return null;
+		try {
+			return new Gson().fromJson(read(manifestFile), manifestType);
+		} catch (IOException e) {
+			return null;
+		} catch (JsonParseException e) {
+			return null;
+		}
+	}
+
+	private String read(File cacheFile) throws IOException {
+		FileInputStream input = new FileInputStream(cacheFile);
+		try {
+			FileChannel channel = input.getChannel();
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return UTF8.decode(buffer).toString();
+		} finally {
+			IOUtils.closeQuietly(input);
+		}
+	}
+
+	/**
+	 * Writes to a temporary file in the cache directory, then renames it,
+	 * so that concurrent readers never see a partially written file.
+	 * Failures are ignored, as the JSON can always be regenerated.
+	 * 
+	 * @return True if the file was written
+	 */
+	private boolean write(File cacheFile, String contents) {
+		File temp = null;
+		OutputStream output = null;
+		try {
+			if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) return false;
+			temp = File.createTempFile(cacheFile.getName(), ".tmp", cacheDirectory);
+			output = new FileOutputStream(temp);
+			output.write(contents.getBytes(UTF8));
+			output.close();
+			output = null;
+			if (temp.renameTo(cacheFile)) {
+				temp = null;
+				return true;
+			}
+		} catch (IOException e) {
+			//The cache is best effort
+		} finally {
+			IOUtils.closeQuietly(output);
+			if (temp != null) temp.delete();
+		}
+		return false;
+	}
+
+	/**
+	 * Deletes the cache entries and manifests of other keys, e.g. those of
+	 * earlier deploys, so that the directory does not grow with every change
+	 */
+	private void deleteOtherEntries(String endpointKey, String key) {
+		File[] cacheFiles = cacheDirectory.listFiles();
+		if (cacheFiles == null) return;
+		for (File cacheFile : cacheFiles) {
+			String name = cacheFile.getName();
+			if (cacheFileName.matcher(name).matches() && 
+					!name.startsWith(endpointKey + ".") && !name.startsWith(key + "."))
+				cacheFile.delete();
+		}
+	}
+
+	private String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xf, 16));
+			hex.append(Character.forDigit(b & 0xf, 16));
+		}
+		return hex.toString();
+	}
+
+}
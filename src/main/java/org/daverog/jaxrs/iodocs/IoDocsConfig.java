@@ -0,0 +1,321 @@
+package org.daverog.jaxrs.iodocs;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * The settings of an API's I/O Docs, other than the endpoints themselves.
+ *
+ * The settings are validated once, when the config is built, and everything in
+ * the JSON apart from the resources is rendered at that point. Generating I/O Docs
+ * from a config then only needs to render the resources.
+ *
+ * <pre>
+ * IoDocsConfig config = IoDocsConfig.builder()
+ *     .name("My API")
+ *     .title("My API")
+ *     .version("1.0")
+ *     .basePath("http://api.com/")
+ *     .headerKey("X-Api-Key")
+ *     .build();
+ * </pre>
+ */
+public class IoDocsConfig {
+
+	public enum AuthScheme {
+		NONE, QUERY_KEY, HEADER_KEY, OAUTH2
+	}
+
+	public enum ResourceGrouping {
+		/** All methods are in a single resource, named by the resource name */
+		SINGLE,
+		/** Each endpoint class is a resource, named by the class's simple name */
+		ENDPOINT
+	}
+
+	private static final String RESOURCES_PLACEHOLDER = "IODOCS_RESOURCES_PLACEHOLDER";
+
+	private final Builder builder;
+	private final ImmutableList<IoDocsParameter> extensionParameters;
+	private final Gson gson;
+	private final String envelopePrefix;
+	private final String envelopeSuffix;
+
+	private IoDocsConfig(Builder builder) {
+		this.builder = builder.copy();
+		this.extensionParameters = ImmutableList.copyOf(builder.extensionParameters);
+		this.gson = builder.pretty ? new GsonBuilder().setPrettyPrinting().create() : new Gson();
+
+		String envelope = gson.toJson(getEnvelope());
+		int resourcesStart = envelope.lastIndexOf("\"" + RESOURCES_PLACEHOLDER + "\"");
+		this.envelopePrefix = envelope.substring(0, resourcesStart);
+		this.envelopeSuffix = envelope.substring(resourcesStart + RESOURCES_PLACEHOLDER.length() + 2);
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return A builder with the same settings as this config
+	 */
+	public Builder toBuilder() {
+		return builder.copy();
+	}
+
+	public List<IoDocsParameter> getExtensionParameters() {
+		return extensionParameters;
+	}
+
+	public boolean isPretty() {
+		return builder.pretty;
+	}
+
+	public ResourceGrouping getResourceGrouping() {
+		return builder.resourceGrouping;
+	}
+
+	/**
+	 * @return The name of the single resource, which is only used when 
+	 *         methods are not grouped by endpoint
+	 */
+	public String getResourceName() {
+		return builder.resourceName;
+	}
+
+	/**
+	 * @return The name of the resource that the endpoint's methods belong to
+	 */
+	public String getResourceName(Class<?> endpoint) {
+		return builder.resourceGrouping == ResourceGrouping.ENDPOINT ?
+			endpoint.getSimpleName() : getResourceName();
+	}
+
+	Gson getGson() {
+		return gson;
+	}
+
+	/**
+	 * @return The rendered JSON that comes before the resources
+	 */
+	String getEnvelopePrefix() {
+		return envelopePrefix;
+	}
+
+	/**
+	 * @return The rendered JSON that comes after the resources
+	 */
+	String getEnvelopeSuffix() {
+		return envelopeSuffix;
+	}
+
+	private LinkedHashMap<String, Object> getEnvelope() {
+		LinkedHashMap<String, Object> json = Maps.newLinkedHashMap();
+		json.put("name", builder.name);
+		json.put("title", builder.title);
+		json.put("description", builder.description);
+		json.put("version", builder.version);
+		json.put("basePath", builder.basePath);
+		json.put("protocol", builder.protocol);
+		if (builder.authScheme != AuthScheme.NONE)
+			json.put("auth", getAuth());
+		json.put("resources", RESOURCES_PLACEHOLDER);
+		return json;
+	}
+
+	private LinkedHashMap<String, Object> getAuth() {
+		LinkedHashMap<String, Object> auth = Maps.newLinkedHashMap();
+		if (builder.authScheme == AuthScheme.OAUTH2) {
+			LinkedHashMap<String, Object> oauth = Maps.newLinkedHashMap();
+			LinkedHashMap<String, Object> token = Maps.newLinkedHashMap();
+			auth.put("oauth", oauth);
+			oauth.put("version", "2.0");
+			oauth.put("type", "authorization-code");
+			oauth.put("base_uri", builder.oauthBaseUri);
+			oauth.put("authorize_uri", builder.oauthAuthorizeUri);
+			oauth.put("access_token_uri", builder.oauthAccessTokenUri);
+			oauth.put("token", token);
+			token.put("location", "query");
+			token.put("param", "access_token");
+		} else {
+			LinkedHashMap<String, Object> key = Maps.newLinkedHashMap();
+			auth.put("key", key);
+			key.put("location", builder.authScheme == AuthScheme.HEADER_KEY ? "header" : "query");
+			key.put("param", builder.keyParam);
+		}
+		return auth;
+	}
+
+	public static class Builder {
+
+		private String name;
+		private String title;
+		private String description;
+		private String version;
+		private String basePath;
+		private String protocol = "rest";
+		private AuthScheme authScheme = AuthScheme.QUERY_KEY;
+		private String keyParam = "api_key";
+		private String oauthBaseUri;
+		private String oauthAuthorizeUri;
+		private String oauthAccessTokenUri;
+		private ResourceGrouping resourceGrouping = ResourceGrouping.SINGLE;
+		private String resourceName = "Product Methods";
+		private boolean pretty = true;
+		private List<IoDocsParameter> extensionParameters = Lists.newArrayList();
+
+		private Builder() {}
+
+		/** The name of the API (not shown to the public) */
+		public Builder name(String name) {
+			this.name = name;
+			return this;
+		}
+
+		/** The title of the API */
+		public Builder title(String title) {
+			this.title = title;
+			return this;
+		}
+
+		/** A more detailed description of the API */
+		public Builder description(String description) {
+			this.description = description;
+			return this;
+		}
+
+		/** The current version of the API */
+		public Builder version(String version) {
+			this.version = version;
+			return this;
+		}
+
+		/** The base path from which all paths are relative */
+		public Builder basePath(String basePath) {
+			this.basePath = basePath;
+			return this;
+		}
+
+		/** Defaults to "rest" */
+		public Builder protocol(String protocol) {
+			this.protocol = protocol;
+			return this;
+		}
+
+		/** The API key is passed as the given query parameter (the default, with 'api_key') */
+		public Builder queryKey(String param) {
+			this.authScheme = AuthScheme.QUERY_KEY;
+			this.keyParam = param;
+			return this;
+		}
+
+		/** The API key is passed as the given header */
+		public Builder headerKey(String header) {
+			this.authScheme = AuthScheme.HEADER_KEY;
+			this.keyParam = header;
+			return this;
+		}
+
+		/** OAuth 2.0, using the authorization code flow */
+		public Builder oauth2(String baseUri, String authorizeUri, String accessTokenUri) {
+			this.authScheme = AuthScheme.OAUTH2;
+			this.oauthBaseUri = baseUri;
+			this.oauthAuthorizeUri = authorizeUri;
+			this.oauthAccessTokenUri = accessTokenUri;
+			return this;
+		}
+
+		/** The API does not need authentication */
+		public Builder noAuth() {
+			this.authScheme = AuthScheme.NONE;
+			return this;
+		}
+
+		/** Defaults to a single resource */
+		public Builder resourceGrouping(ResourceGrouping resourceGrouping) {
+			this.resourceGrouping = resourceGrouping;
+			return this;
+		}
+
+		/** The name of the single resource, defaults to "Product Methods" */
+		public Builder resourceName(String resourceName) {
+			this.resourceName = resourceName;
+			return this;
+		}
+
+		/** Pretty printed JSON (the default), or compact JSON */
+		public Builder pretty(boolean pretty) {
+			this.pretty = pretty;
+			return this;
+		}
+
+		/**
+		 * If parameters match the name, location and type of these parameters,
+		 * they will inherit the description and enum values
+		 */
+		public Builder extensionParameters(List<IoDocsParameter> extensionParameters) {
+			this.extensionParameters = extensionParameters;
+			return this;
+		}
+
+		/**
+		 * @throws IllegalStateException If a required setting is missing
+		 */
+		public IoDocsConfig build() {
+			checkState(!StringUtils.isBlank(name), "An API name is required");
+			checkState(basePath != null, "A base path is required");
+			checkState(!StringUtils.isBlank(protocol), "A protocol is required");
+			checkState(authScheme != null, "An auth scheme is required");
+			if (authScheme == AuthScheme.QUERY_KEY || authScheme == AuthScheme.HEADER_KEY)
+				checkState(!StringUtils.isBlank(keyParam), "An API key parameter name is required");
+			if (authScheme == AuthScheme.OAUTH2)
+				checkState(!StringUtils.isBlank(oauthAuthorizeUri) && !StringUtils.isBlank(oauthAccessTokenUri),
+					"OAuth 2.0 needs authorize and access token URIs");
+			checkState(resourceGrouping != null, "A resource grouping is required");
+			if (resourceGrouping == ResourceGrouping.SINGLE)
+				checkState(!StringUtils.isBlank(resourceName), "A resource name is required");
+			checkState(extensionParameters != null, "Extension parameters must not be null");
+			return buildUnchecked();
+		}
+
+		/**
+		 * Builds the config without validating the API details, as the positional
+		 * IoDocsGenerator methods have always accepted any values for these
+		 */
+		IoDocsConfig buildUnchecked() {
+			return new IoDocsConfig(this);
+		}
+
+		private Builder copy() {
+			Builder copy = new Builder();
+			copy.name = name;
+			copy.title = title;
+			copy.description = description;
+			copy.version = version;
+			copy.basePath = basePath;
+			copy.protocol = protocol;
+			copy.authScheme = authScheme;
+			copy.keyParam = keyParam;
+			copy.oauthBaseUri = oauthBaseUri;
+			copy.oauthAuthorizeUri = oauthAuthorizeUri;
+			copy.oauthAccessTokenUri = oauthAccessTokenUri;
+			copy.resourceGrouping = resourceGrouping;
+			copy.resourceName = resourceName;
+			copy.pretty = pretty;
+			copy.extensionParameters = Lists.newArrayList(extensionParameters);
+			return copy;
+		}
+
+	}
+
+}
@@ -0,0 +1,65 @@
+package org.daverog.jaxrs.iodocs;
+
+/**
+ * A single problem found while generating I/O Docs.
+ *
+ * The source identifies the JAX-RS class and method that caused the problem,
+ * e.g. "QueryApi.query". For a parameter, the parameter's name follows in
+ * brackets, e.g. "QueryApi.query(param1)", or its index if it has no name.
+ */
+public class IoDocsDiagnostic {
+
+	public enum Severity {
+		WARNING, ERROR
+	}
+
+	public enum Code {
+		PATH_PARAMETER_NOT_IN_PATH(Severity.ERROR),
+		DUPLICATE_METHOD_NAME(Severity.ERROR),
+		DUPLICATE_RESOURCE_NAME(Severity.WARNING),
+		DEFAULT_NOT_IN_ENUMERATION(Severity.ERROR),
+		ENUMERATION_SIZE_MISMATCH(Severity.WARNING),
+		UNSUPPORTED_ANNOTATION(Severity.WARNING),
+		IGNORED_ANNOTATION(Severity.WARNING),
+		UNDOCUMENTED_PARAMETER(Severity.WARNING),
+		UNRESOLVED_SUB_RESOURCE(Severity.WARNING);
+
+		private Severity severity;
+
+		Code(Severity severity) {
+			this.severity = severity;
+		}
+	}
+
+	private Code code;
+	private String source;
+	private String message;
+
+	public IoDocsDiagnostic(Code code, String source, String message) {
+		this.code = code;
+		this.source = source;
+		this.message = message;
+	}
+
+	public Code getCode() {
+		return code;
+	}
+
+	public Severity getSeverity() {
+		return code.severity;
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	@Override
+	public String toString() {
+		return getSeverity() + " " + code + " at " + source + ": " + message;
+	}
+
+}
@@ -0,0 +1,18 @@
+package org.daverog.jaxrs.iodocs;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicate that a method should only be shown to IoDocsRegistry tenants that 
+ * hold at least one of the given entitlements.
+ * 
+ * On a sub-resource locator, the entitlement applies to all of the sub-resource methods.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IoDocsEntitlement {
+	String[] value();
+}
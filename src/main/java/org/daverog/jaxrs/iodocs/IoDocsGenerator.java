@@ -1,28 +1,43 @@
 package org.daverog.jaxrs.iodocs;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
 
+import javax.ws.rs.CookieParam;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.Encoded;
+import javax.ws.rs.FormParam;
 import javax.ws.rs.HeaderParam;
 import javax.ws.rs.HttpMethod;
+import javax.ws.rs.MatrixParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 
 import org.apache.cxf.jaxrs.model.wadl.Description;
 import org.apache.cxf.jaxrs.model.wadl.Descriptions;
+import org.daverog.jaxrs.iodocs.IoDocsConfig.ResourceGrouping;
 import org.daverog.jaxrs.iodocs.IoDocsParameter.Location;
 import org.daverog.jaxrs.iodocs.IoDocsParameter.Type;
 import org.springframework.util.StringUtils;
 
 
 import com.google.common.base.Function;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.common.collect.Sets;
 
 public class IoDocsGenerator {
 	
@@ -39,6 +54,37 @@ public class IoDocsGenerator {
 		javax.ws.rs.core.StreamingOutput.class
 	});
 	
+	private static final int ESTIMATED_METHOD_LENGTH = 512;
+	
+	private static final String INDENT = "  ";
+	
+	private static final List<Class<?>> unsupportedParameterAnnotations = Lists.newArrayList(new Class<?>[]{
+		CookieParam.class,
+		FormParam.class,
+		MatrixParam.class
+	});
+	
+	private static final List<Class<?>> ignoredParameterAnnotations = Lists.newArrayList(new Class<?>[]{
+		DefaultValue.class,
+		Encoded.class
+	});
+	
+	private static final List<Class<?>> parameterDocumentationAnnotations = Lists.newArrayList(new Class<?>[]{
+		Description.class,
+		IoDocsDefaultBoolean.class,
+		IoDocsDefaultInteger.class,
+		IoDocsDefaultString.class,
+		IoDocsRequired.class,
+		IoDocsEnum.class,
+		IoDocsEnumDescriptions.class
+	});
+	
+	private static final List<Class<?>> methodOnlyAnnotations = Lists.newArrayList(new Class<?>[]{
+		IoDocsName.class,
+		IoDocsEntitlement.class,
+		Descriptions.class
+	});
+	
 	/**
 	 * Generate Mashery I/O Docs based on annotated JAX-RS classes
 	 * 
@@ -58,6 +104,11 @@ public class IoDocsGenerator {
 	 * - Supports Enumeration values and descriptions using IoDocsEnum(Description)
 	 * - Supports parameter extensions to enhance regularly used 
 	 *   parameters
+	 * - Follows sub-resource locators, prefixing the sub-resource methods
+	 *   with the locator's name, path and parameters
+	 * - Inherits JAX-RS annotations from superclasses and interfaces
+	 * - Records the entitlements needed to see a method using IoDocsEntitlement,
+	 *   which are applied by the IoDocsRegistry tenant views
 	 * 
 	 * @param name The name of the API (not shown to the public)
 	 * @param title The title of the API
@@ -77,162 +128,579 @@ public class IoDocsGenerator {
 			String basePath, 
 			Class<?>[] endpoints,
 			List<IoDocsParameter> extensionParameters) {
-		LinkedHashMap<String, Object> json = Maps.newLinkedHashMap();
-		LinkedHashMap<String, Object> auth = Maps.newLinkedHashMap();
-		LinkedHashMap<String, Object> key = Maps.newLinkedHashMap();
-		LinkedHashMap<String, Object> resources = Maps.newLinkedHashMap();
-		LinkedHashMap<String, Object> productMethods = Maps.newLinkedHashMap();
-		LinkedHashMap<String, Object> methods = Maps.newLinkedHashMap();
-		json.put("name", name);
-		json.put("title", title);
-		json.put("description", description);
-		json.put("version", version);
-		json.put("basePath", basePath);
-		json.put("protocol", "rest");
-		json.put("auth", auth);
-		auth.put("key", key);
-		key.put("location", "query");
-		key.put("param", "api_key");
-		json.put("resources", resources);
-		resources.put("Product Methods", productMethods);
-		productMethods.put("methods", methods);
+		return generateIoDocs(name, title, description, version, basePath, 
+				endpoints, extensionParameters, new IoDocsLinter());
+	}
+	
+	/**
+	 * Generate Mashery I/O Docs, reporting any consistency problems found
+	 * along the way to the given linter
+	 * 
+	 * @see #generateIoDocs(IoDocsConfig, Class[], IoDocsLinter)
+	 */
+	public String generateIoDocs(
+			String name, 
+			String title, 
+			String description, 
+			String version, 
+			String basePath, 
+			Class<?>[] endpoints,
+			List<IoDocsParameter> extensionParameters,
+			IoDocsLinter linter) {
+		return generateIoDocs(IoDocsConfig.builder()
+				.name(name)
+				.title(title)
+				.description(description)
+				.version(version)
+				.basePath(basePath)
+				.extensionParameters(extensionParameters)
+				.buildUnchecked(), 
+			endpoints, linter);
+	}
+	
+	/**
+	 * Generate Mashery I/O Docs using a config that can be shared by
+	 * repeated generations
+	 * 
+	 * @param config The API details, auth scheme, resource grouping and formatting
+	 * @param endpoints The classes that contain JAX-RS annotated RESTful methods
+	 * @return The I/O Docs JSON 
+	 */
+	public String generateIoDocs(IoDocsConfig config, Class<?>[] endpoints) {
+		return generateIoDocs(config, endpoints, new IoDocsLinter());
+	}
+	
+	/**
+	 * Generate Mashery I/O Docs using a config that can be shared by
+	 * repeated generations, reporting any consistency problems found 
+	 * along the way to the given linter
+	 * 
+	 * The checks are made during the same traversal that builds the JSON:
+	 * - Path parameters that do not appear in the @Path template
+	 * - Method names that are used more than once in a resource, which would 
+	 *   overwrite each other
+	 * - Endpoint classes with the same simple name, when grouping resources by 
+	 *   endpoint, whose methods would be merged into one resource
+	 * - Default values that are not part of the enumeration
+	 * - Enumerations and enumeration descriptions of different sizes
+	 * - Unsupported or ignored annotations, and parameters that cannot be documented
+	 * 
+	 * @param linter Collects the diagnostics, or throws an IoDocsValidationException
+	 *        on the first error if it was created as fail-fast
+	 * @see #generateIoDocs(IoDocsConfig, Class[])
+	 */
+	public String generateIoDocs(IoDocsConfig config, Class<?>[] endpoints, IoDocsLinter linter) {
+		LinkedHashMap<String, Object> resources = createResources(config);
+		ListMultimap<Class<?>, IoDocsMethod> methods = getMethods(endpoints, linter);
+		checkResourceNames(config, methods.keySet(), linter);
+		for (Map.Entry<Class<?>, IoDocsMethod> entry : methods.entries()) {
+			IoDocsMethod method = entry.getValue();
+			String resourceName = config.getResourceName(entry.getKey());
+			boolean replaced = addMethodData(resources, resourceName, method.getName(), 
+					method.getData(config.getExtensionParameters(), linter));
+			if (replaced)
+				linter.duplicateMethod(method.getSource(), resourceName, method.getName());
+		}
 		
+		return render(config, resources, methods.size());
+	}
+	
+	/**
+	 * @return The documented methods of each of the endpoints, in order
+	 */
+	ListMultimap<Class<?>, IoDocsMethod> getMethods(Class<?>[] endpoints, IoDocsLinter linter) {
+		ListMultimap<Class<?>, IoDocsMethod> methods = LinkedListMultimap.create();
+		Map<Class<?>, Resource> analysedResources = Maps.newHashMap();
 		for (Class<?> endpoint : endpoints) {
-			for (IoDocsMethod method : getMethodsFromEndpoint(endpoint)) {
-				methods.put(method.getName(), 
-						method.getData(extensionParameters));
-			}
+			methods.putAll(endpoint, getMethodsFromEndpoint(endpoint, analysedResources, linter));
 		}
-		
-		Gson gson = new GsonBuilder().setPrettyPrinting().create();
-		return gson.toJson(json);
+		return methods;
 	}
-
-	private <T> List<IoDocsMethod> getMethodsFromEndpoint(
-			Class<T> jaxRsClass) {
+	
+	/**
+	 * Reports endpoint classes whose methods would be merged into one resource
+	 * because they have the same simple name
+	 */
+	void checkResourceNames(IoDocsConfig config, Set<Class<?>> endpoints, IoDocsLinter linter) {
+		if (config.getResourceGrouping() != ResourceGrouping.ENDPOINT) return;
+		Map<String, Class<?>> endpointsByResourceName = Maps.newHashMap();
+		for (Class<?> endpoint : endpoints) {
+			String resourceName = config.getResourceName(endpoint);
+			Class<?> otherEndpoint = endpointsByResourceName.put(resourceName, endpoint);
+			if (otherEndpoint != null)
+				linter.duplicateResourceName(endpoint.getName(), resourceName, otherEndpoint);
+		}
+	}
+	
+	/**
+	 * @return The resources to add methods to, which always include the single
+	 *         resource (even if it has no methods) when grouping is SINGLE
+	 */
+	LinkedHashMap<String, Object> createResources(IoDocsConfig config) {
+		LinkedHashMap<String, Object> resources = Maps.newLinkedHashMap();
+		if (config.getResourceGrouping() == ResourceGrouping.SINGLE)
+			getResourceMethods(resources, config.getResourceName());
+		return resources;
+	}
+	
+	/**
+	 * @return True if the resource already had a method with the same name,
+	 *         which has now been replaced
+	 */
+	boolean addMethodData(
+			LinkedHashMap<String, Object> resources, 
+			String resourceName, 
+			String methodName, 
+			Object methodData) {
+		return getResourceMethods(resources, resourceName).put(methodName, methodData) != null;
+	}
+	
+	/**
+	 * @return The methods of the resource, which is created if it does not exist
+	 */
+	private LinkedHashMap<String, Object> getResourceMethods(
+			LinkedHashMap<String, Object> resources, String resourceName) {
+		@SuppressWarnings("unchecked")
+		LinkedHashMap<String, Object> resource = (LinkedHashMap<String, Object>) resources.get(resourceName);
+		if (resource == null) {
+			resource = Maps.newLinkedHashMap();
+			resource.put("methods", Maps.newLinkedHashMap());
+			resources.put(resourceName, resource);
+		}
+		@SuppressWarnings("unchecked")
+		LinkedHashMap<String, Object> methods = (LinkedHashMap<String, Object>) resource.get("methods");
+		return methods;
+	}
+	
+	/**
+	 * Writes the resources between the config's pre-rendered envelope
+	 */
+	String render(IoDocsConfig config, Map<String, Object> resources, int methodCount) {
+		String prefix = config.getEnvelopePrefix();
+		String suffix = config.getEnvelopeSuffix();
+		StringWriter json = new StringWriter(
+				prefix.length() + suffix.length() + methodCount * ESTIMATED_METHOD_LENGTH);
+		json.write(prefix);
+		//The resources are one level deep in the envelope
+		config.getGson().toJson(resources, config.isPretty() ? new IndentingWriter(json) : json);
+		json.write(suffix);
+		return json.toString();
+	}
+	
+	private List<IoDocsMethod> getMethodsFromEndpoint(
+			Class<?> jaxRsClass, Map<Class<?>, Resource> analysedResources, IoDocsLinter linter) {
 		List<IoDocsMethod> methods = Lists.newArrayList();
 		String endpointPath = "";
-		if (jaxRsClass.getAnnotation(Path.class) != null) 
-			endpointPath = jaxRsClass.getAnnotation(Path.class).value();
+		Path endpointPathAnnotation = findClassAnnotation(jaxRsClass, Path.class);
+		if (endpointPathAnnotation != null) 
+			endpointPath = endpointPathAnnotation.value();
+		
+		addResourceMethods(methods, jaxRsClass, "", endpointPath, false,
+				Lists.<IoDocsParameter>newArrayList(), Lists.<Set<String>>newArrayList(),
+				analysedResources, Sets.<Class<?>>newHashSet(), linter);
+		return methods;
+	}
+	
+	/**
+	 * Adds the methods of a resource class, and recursively those of its
+	 * sub-resources, prefixed by the name, path, parameters and entitlements of the
+	 * locators through which they were reached.
+	 * 
+	 * Each class is only analysed once, even if it is reachable from many
+	 * locators. The chain of classes being added stops locator cycles. 
+	 * 
+	 * As before sub-resources were supported, an endpoint's path is simply
+	 * concatenated with its methods' paths, whereas a locator's path is joined
+	 * to its sub-resource's paths with a single '/'.
+	 */
+	private void addResourceMethods(
+			List<IoDocsMethod> methods, 
+			Class<?> resourceClass,
+			String namePrefix,
+			String pathPrefix,
+			boolean locatorPrefix,
+			List<IoDocsParameter> parameterPrefix,
+			List<Set<String>> entitlementPrefix,
+			Map<Class<?>, Resource> analysedResources,
+			Set<Class<?>> chain,
+			IoDocsLinter linter) {
+		if (!chain.add(resourceClass)) return;
+		
+		Resource resource = analysedResources.get(resourceClass);
+		if (resource == null) {
+			resource = analyseResource(resourceClass, linter);
+			analysedResources.put(resourceClass, resource);
+		}
+		
+		for (IoDocsMethod method : resource.methods) {
+			IoDocsMethod prefixedMethod = method.withPrefix(
+					namePrefix, pathPrefix, locatorPrefix, parameterPrefix, entitlementPrefix);
+			linter.checkPathParameters(prefixedMethod.getSource(), 
+					prefixedMethod.getPath(), prefixedMethod.getPathParameterNames());
+			methods.add(prefixedMethod);
+		}
+		
+		for (IoDocsMethod locator : resource.locators) {
+			IoDocsMethod prefixedLocator = locator.withPrefix(
+					namePrefix, pathPrefix, locatorPrefix, parameterPrefix, entitlementPrefix);
+			addResourceMethods(methods, locator.getSubResource(), 
+					prefixedLocator.getName() + "_", prefixedLocator.getPath(), true, 
+					prefixedLocator.getParameters(), prefixedLocator.getEntitlements(),
+					analysedResources, chain, linter);
+		}
+		
+		chain.remove(resourceClass);
+	}
+
+	/**
+	 * Finds the resource methods and sub-resource locators of a class, with paths
+	 * relative to the class. As in JAX-RS, annotations are inherited from the 
+	 * superclass or interface method if the method itself has none.
+	 */
+	private Resource analyseResource(Class<?> jaxRsClass, IoDocsLinter linter) {
+		Resource resource = new Resource();
 		
 		for (Method method : jaxRsClass.getMethods()) {
+			if (method.isBridge() || method.isSynthetic()) continue;
+			
+			Method annotatedMethod = findAnnotatedMethod(jaxRsClass, method);
 			String name = jaxRsClass.getSimpleName()+"_"+method.getName();
+			String source = jaxRsClass.getSimpleName()+"."+method.getName();
 			String httpMethod = null;
-			String path = null;
+			String path = "";
 			String description = null;
-			List<IoDocsParameter> parameters = Lists.<IoDocsParameter>newArrayList();
+			List<Set<String>> entitlements = Lists.newArrayList();
+			
+			if (method.isAnnotationPresent(IoDocsIgnore.class) || 
+				annotatedMethod.isAnnotationPresent(IoDocsIgnore.class)) continue;
 			
-			if(method.isAnnotationPresent(IoDocsIgnore.class)) continue;
+			List<Annotation> annotations = combineAnnotations(annotatedMethod != method, 
+					annotatedMethod.getAnnotations(), method.getAnnotations());
 			
-			for (Annotation annotation : method.getAnnotations()) {
+			for (Annotation annotation : annotations) {
 				if (annotation.annotationType().equals(IoDocsName.class)) {
 					name = ((IoDocsName)annotation).value();
+				} else if (annotation.annotationType().equals(Path.class)) {
+					path = ((Path)annotation).value();
+				} else if (annotation.annotationType().equals(IoDocsEntitlement.class)) {
+					entitlements.add(Sets.newHashSet(((IoDocsEntitlement)annotation).value()));
 				} else if (annotation.annotationType().isAnnotationPresent(HttpMethod.class)) {
-					String restMethodPath = endpointPath;
-					if (method.getAnnotation(Path.class) != null) 
-						restMethodPath = endpointPath + method.getAnnotation(Path.class).value();
-					
-					Descriptions descriptions = method.getAnnotation(Descriptions.class);
-
 					httpMethod = annotation.annotationType().getAnnotation(HttpMethod.class).value();
-					path = restMethodPath;
-					
-					if (descriptions != null) {
-						String fullDescription = StringUtils.collectionToCommaDelimitedString(
-								Lists.transform(Lists.newArrayList(descriptions.value()), 
-										new Function<Description, String>(){
-											public String apply(Description description) {
-												return description.value();
-											}
-										}));
-						if (!fullDescription.isEmpty())
-							description = fullDescription;
-					}
-					
-					for (int paramIndex = 0; paramIndex < method.getParameterTypes().length; paramIndex++) {
-						Annotation[] parameterAnnotations = method.getParameterAnnotations()[paramIndex];
+				} else if (annotation.annotationType().equals(Descriptions.class)) {
+					String fullDescription = StringUtils.collectionToCommaDelimitedString(
+							Lists.transform(Lists.newArrayList(((Descriptions)annotation).value()), 
+									new Function<Description, String>(){
+										public String apply(Description description) {
+											return description.value();
+										}
+									}));
+					if (!fullDescription.isEmpty())
+						description = fullDescription;
+				}
+			}
+			
+			if (httpMethod != null) {
+				resource.methods.add(new IoDocsMethod(
+					name, httpMethod, description, path, 
+					getParameters(method, annotatedMethod, source, linter), 
+					entitlements, source, null));
+			} else if (annotatedMethod.isAnnotationPresent(Path.class)) {
+				Class<?> subResource = method.getReturnType();
+				if (subResource.isPrimitive() || subResource.equals(Object.class)) {
+					linter.unresolvedSubResource(source, subResource);
+				} else {
+					resource.locators.add(new IoDocsMethod(
+						name, null, description, path, 
+						getParameters(method, annotatedMethod, source, linter), 
+						entitlements, source, subResource));
+				}
+			} else {
+				for (Annotation annotation : annotations) {
+					if (methodOnlyAnnotations.contains(annotation.annotationType()))
+						linter.ignoredAnnotation(source, annotation, "the method has no HTTP method");
+				}
+			}
+		}
+		return resource;
+	}
+	
+	private List<IoDocsParameter> getParameters(
+			Method method, Method annotatedMethod, String source, IoDocsLinter linter) {
+		List<IoDocsParameter> parameters = Lists.<IoDocsParameter>newArrayList();
+		
+		for (int paramIndex = 0; paramIndex < method.getParameterTypes().length; paramIndex++) {
+			List<Annotation> parameterAnnotations = combineAnnotations(annotatedMethod != method, 
+					annotatedMethod.getParameterAnnotations()[paramIndex], 
+					method.getParameterAnnotations()[paramIndex]);
 
-						boolean ignore = false;
-						for (Annotation parameterAnnotation : parameterAnnotations) {
-							if (parameterAnnotation.annotationType().equals(IoDocsIgnore.class))
-								ignore = true;
-						}						
-						if (ignore) continue;
-						
-						Class<?> typeClass = method.getParameterTypes()[paramIndex];
+			boolean ignore = false;
+			for (Annotation parameterAnnotation : parameterAnnotations) {
+				if (parameterAnnotation.annotationType().equals(IoDocsIgnore.class))
+					ignore = true;
+			}						
+			if (ignore) continue;
+			
+			Class<?> typeClass = method.getParameterTypes()[paramIndex];
 
-						String paramName = null;
-						String paramDescription = null;
-						boolean required = false;
-						Object defaultValue = null;
-						Location location = null;
-						Type paramType = getType(typeClass);
-						List<String> enumeration = Lists.newArrayList();
-						List<String> enumDescriptions = Lists.newArrayList();
+			String paramName = null;
+			String paramDescription = null;
+			boolean required = false;
+			Object defaultValue = null;
+			Location location = null;
+			Type paramType = getType(typeClass);
+			List<String> enumeration = Lists.newArrayList();
+			List<String> enumDescriptions = Lists.newArrayList();
 
-						//Convert boolean to string "true", "false" enum
-						//because I/O docs treats boolean as 0 or 1
-						if (paramType == Type.BOOLEAN) {
-							enumeration.add("true");
-							enumeration.add("false");
-							enumDescriptions.add("true");
-							enumDescriptions.add("false");
-							paramType = Type.STRING;
-						}
-						
-						boolean isAParameter = false;
-						
-						for (Annotation parameterAnnotation : parameterAnnotations) {
-							if (parameterAnnotation.annotationType().equals(QueryParam.class)) {
-								isAParameter = true;
-								paramName = ((QueryParam)parameterAnnotation).value();
-								location = Location.query;
-							} else if (parameterAnnotation.annotationType().equals(PathParam.class)) {
-								isAParameter = true;
-								paramName = ((PathParam)parameterAnnotation).value();
-								location = Location.pathReplace;
-							} else if (parameterAnnotation.annotationType().equals(HeaderParam.class)) {
-								isAParameter = true;
-								paramName = ((HeaderParam)parameterAnnotation).value();
-								location = Location.header;
-							} else if (parameterAnnotation.annotationType().equals(Description.class)) {
-								paramDescription = ((Description)parameterAnnotation).value();
-							} else if (parameterAnnotation.annotationType().equals(IoDocsDefaultBoolean.class)) {
-								defaultValue = ((IoDocsDefaultBoolean)parameterAnnotation).value() + "";
-							} else if (parameterAnnotation.annotationType().equals(IoDocsDefaultInteger.class)) {
-								defaultValue = ((IoDocsDefaultInteger)parameterAnnotation).value();
-							} else if (parameterAnnotation.annotationType().equals(IoDocsDefaultString.class)) {
-								defaultValue = ((IoDocsDefaultString)parameterAnnotation).value();
-							} else if (parameterAnnotation.annotationType().equals(IoDocsRequired.class)) {
-								required = true;
-							} else if (parameterAnnotation.annotationType().equals(IoDocsEnum.class)) {
-								enumeration = Lists.newArrayList(((IoDocsEnum)parameterAnnotation).value());
-							} else if (parameterAnnotation.annotationType().equals(IoDocsEnumDescriptions.class)) {
-								enumDescriptions = Lists.newArrayList(((IoDocsEnumDescriptions)parameterAnnotation).value());
-							}
-							
-						}
-						
-						if (!isAParameter && validRequestBodyClasses.contains(typeClass)) {
-							paramName = "requestBody";
-							paramType = Type.TEXTAREA;
-							location = Location.body;
-						}
-						
-						if (paramName != null)
-							parameters.add(new IoDocsParameter(
-								paramName, paramDescription, location, 
-								paramType, required, defaultValue,
-								enumeration, enumDescriptions));
-					}
+			//Convert boolean to string "true", "false" enum
+			//because I/O docs treats boolean as 0 or 1
+			if (paramType == Type.BOOLEAN) {
+				enumeration.add("true");
+				enumeration.add("false");
+				enumDescriptions.add("true");
+				enumDescriptions.add("false");
+				paramType = Type.STRING;
+			}
+			
+			boolean isAParameter = false;
+			boolean isHandled = false;
+			List<Annotation> unsupportedAnnotations = Lists.newArrayList();
+			
+			for (Annotation parameterAnnotation : parameterAnnotations) {
+				if (parameterAnnotation.annotationType().equals(QueryParam.class)) {
+					isAParameter = true;
+					paramName = ((QueryParam)parameterAnnotation).value();
+					location = Location.query;
+				} else if (parameterAnnotation.annotationType().equals(PathParam.class)) {
+					isAParameter = true;
+					paramName = ((PathParam)parameterAnnotation).value();
+					location = Location.pathReplace;
+				} else if (parameterAnnotation.annotationType().equals(HeaderParam.class)) {
+					isAParameter = true;
+					paramName = ((HeaderParam)parameterAnnotation).value();
+					location = Location.header;
+				} else if (parameterAnnotation.annotationType().equals(Description.class)) {
+					paramDescription = ((Description)parameterAnnotation).value();
+				} else if (parameterAnnotation.annotationType().equals(IoDocsDefaultBoolean.class)) {
+					defaultValue = ((IoDocsDefaultBoolean)parameterAnnotation).value() + "";
+				} else if (parameterAnnotation.annotationType().equals(IoDocsDefaultInteger.class)) {
+					defaultValue = ((IoDocsDefaultInteger)parameterAnnotation).value();
+				} else if (parameterAnnotation.annotationType().equals(IoDocsDefaultString.class)) {
+					defaultValue = ((IoDocsDefaultString)parameterAnnotation).value();
+				} else if (parameterAnnotation.annotationType().equals(IoDocsRequired.class)) {
+					required = true;
+				} else if (parameterAnnotation.annotationType().equals(IoDocsEnum.class)) {
+					enumeration = Lists.newArrayList(((IoDocsEnum)parameterAnnotation).value());
+				} else if (parameterAnnotation.annotationType().equals(IoDocsEnumDescriptions.class)) {
+					enumDescriptions = Lists.newArrayList(((IoDocsEnumDescriptions)parameterAnnotation).value());
+				} else if (parameterAnnotation.annotationType().equals(Context.class)) {
+					isHandled = true;
+				} else if (unsupportedParameterAnnotations.contains(parameterAnnotation.annotationType())) {
+					isHandled = true;
+					unsupportedAnnotations.add(parameterAnnotation);
 				}
+				
+			}
+			
+			if (!isAParameter && validRequestBodyClasses.contains(typeClass)) {
+				paramName = "requestBody";
+				paramType = Type.TEXTAREA;
+				location = Location.body;
 			}
 			
-			if (httpMethod != null)
-				methods.add(new IoDocsMethod(
-					name, httpMethod, description, path, parameters));
+			//Diagnostics name the parameter as it is named in the I/O Docs,
+			//or by its index if it will not be documented
+			String parameterSource = source + "(" + 
+					(paramName == null ? paramIndex + "" : paramName) + ")";
+			for (Annotation unsupportedAnnotation : unsupportedAnnotations) {
+				linter.unsupportedAnnotation(parameterSource, unsupportedAnnotation);
+			}
+			for (Annotation parameterAnnotation : parameterAnnotations) {
+				if (ignoredParameterAnnotations.contains(parameterAnnotation.annotationType()))
+					linter.ignoredAnnotation(parameterSource, parameterAnnotation, 
+						"I/O Docs does not show it, use the IoDocs annotations instead");
+				else if (paramName == null && 
+						parameterDocumentationAnnotations.contains(parameterAnnotation.annotationType()))
+					linter.ignoredAnnotation(parameterSource, parameterAnnotation, 
+						"the parameter is not documented");
+			}
+			if (paramName == null && !isHandled)
+				linter.undocumentedParameter(parameterSource, typeClass);
+			
+			if (paramName != null)
+				parameters.add(new IoDocsParameter(
+					paramName, paramDescription, location, 
+					paramType, required, defaultValue,
+					enumeration, enumDescriptions));
+		}
+		return parameters;
+	}
+	
+	/**
+	 * @return The endpoints, their superclasses and interfaces, and the 
+	 *         sub-resources reachable from them, sorted by name
+	 */
+	SortedMap<String, Class<?>> getResourceClasses(Class<?>[] endpoints) {
+		SortedMap<String, Class<?>> resourceClasses = Maps.newTreeMap();
+		for (Class<?> endpoint : endpoints) {
+			addResourceClasses(resourceClasses, endpoint);
+		}
+		return resourceClasses;
+	}
+	
+	private void addResourceClasses(SortedMap<String, Class<?>> resourceClasses, Class<?> jaxRsClass) {
+		if (jaxRsClass == null || jaxRsClass.equals(Object.class) || jaxRsClass.isPrimitive() ||
+			resourceClasses.put(jaxRsClass.getName(), jaxRsClass) != null) return;
+		addResourceClasses(resourceClasses, jaxRsClass.getSuperclass());
+		for (Class<?> jaxRsInterface : jaxRsClass.getInterfaces()) {
+			addResourceClasses(resourceClasses, jaxRsInterface);
+		}
+		for (Method method : jaxRsClass.getMethods()) {
+			Method annotatedMethod = findAnnotatedMethod(jaxRsClass, method);
+			if (annotatedMethod.isAnnotationPresent(Path.class) && !hasHttpMethod(annotatedMethod))
+				addResourceClasses(resourceClasses, method.getReturnType());
+		}
+	}
+	
+	private boolean hasHttpMethod(Method method) {
+		for (Annotation annotation : method.getAnnotations()) {
+			if (annotation.annotationType().isAnnotationPresent(HttpMethod.class)) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * @return The inherited annotations followed by the method's own, so that as
+	 *         the annotations are processed in order, the method's own take precedence
+	 */
+	private List<Annotation> combineAnnotations(
+			boolean inherits, Annotation[] inheritedAnnotations, Annotation[] ownAnnotations) {
+		List<Annotation> annotations = Lists.newArrayList();
+		if (inherits)
+			annotations.addAll(Arrays.asList(inheritedAnnotations));
+		annotations.addAll(Arrays.asList(ownAnnotations));
+		return annotations;
+	}
+	
+	/**
+	 * @return The method itself if it has JAX-RS annotations, otherwise the first
+	 *         method it overrides or implements that does, superclasses first 
+	 */
+	private Method findAnnotatedMethod(Class<?> jaxRsClass, Method method) {
+		if (hasJaxRsAnnotations(method)) return method;
+		Method annotatedMethod = findInheritedAnnotatedMethod(jaxRsClass, method);
+		return annotatedMethod == null ? method : annotatedMethod;
+	}
+	
+	private Method findInheritedAnnotatedMethod(Class<?> candidateClass, Method method) {
+		if (candidateClass == null || candidateClass.equals(Object.class)) return null;
+		try {
+			Method candidate = candidateClass.getDeclaredMethod(method.getName(), method.getParameterTypes());
+			if (hasJaxRsAnnotations(candidate)) return candidate;
+		} catch (NoSuchMethodException e) {
+			//Not declared at this level with the same parameter types
+		}
+		//A generic superclass or interface declares the erasure of the parameter types
+		for (Method candidate : candidateClass.getDeclaredMethods()) {
+			if (!candidate.isBridge() && isErasureOf(candidate, method) && hasJaxRsAnnotations(candidate)) 
+				return candidate;
+		}
+		Method annotatedMethod = findInheritedAnnotatedMethod(candidateClass.getSuperclass(), method);
+		if (annotatedMethod != null) return annotatedMethod;
+		for (Class<?> candidateInterface : candidateClass.getInterfaces()) {
+			annotatedMethod = findInheritedAnnotatedMethod(candidateInterface, method);
+			if (annotatedMethod != null) return annotatedMethod;
+		}
+		return null;
+	}
+	
+	/**
+	 * @return True if the method may override or implement the candidate, which 
+	 *         has the same name and parameter types that are the same or erased
+	 *         to a supertype of the method's
+	 */
+	private boolean isErasureOf(Method candidate, Method method) {
+		Class<?>[] candidateTypes = candidate.getParameterTypes();
+		Class<?>[] methodTypes = method.getParameterTypes();
+		if (!candidate.getName().equals(method.getName()) || 
+				candidateTypes.length != methodTypes.length) return false;
+		for (int i = 0; i < candidateTypes.length; i++) {
+			if (!candidateTypes[i].isAssignableFrom(methodTypes[i])) return false;
+		}
+		return true;
+	}
+	
+	private boolean hasJaxRsAnnotations(Method method) {
+		for (Annotation annotation : method.getAnnotations()) {
+			if (isJaxRsAnnotation(annotation)) return true;
+		}
+		for (Annotation[] parameterAnnotations : method.getParameterAnnotations()) {
+			for (Annotation annotation : parameterAnnotations) {
+				if (isJaxRsAnnotation(annotation)) return true;
+			}
+		}
+		return false;
+	}
+	
+	private boolean isJaxRsAnnotation(Annotation annotation) {
+		return annotation.annotationType().getName().startsWith("javax.ws.rs.")
+			|| annotation.annotationType().isAnnotationPresent(HttpMethod.class);
+	}
+	
+	private <A extends Annotation> A findClassAnnotation(Class<?> jaxRsClass, Class<A> annotationClass) {
+		if (jaxRsClass == null || jaxRsClass.equals(Object.class)) return null;
+		A annotation = jaxRsClass.getAnnotation(annotationClass);
+		if (annotation != null) return annotation;
+		annotation = findClassAnnotation(jaxRsClass.getSuperclass(), annotationClass);
+		if (annotation != null) return annotation;
+		for (Class<?> jaxRsInterface : jaxRsClass.getInterfaces()) {
+			annotation = findClassAnnotation(jaxRsInterface, annotationClass);
+			if (annotation != null) return annotation;
+		}
+		return null;
+	}
+	
+	/**
+	 * The resource methods and sub-resource locators of a class, with paths
+	 * relative to the class
+	 */
+	private static class Resource {
+		private List<IoDocsMethod> methods = Lists.newArrayList();
+		private List<IoDocsMethod> locators = Lists.newArrayList();
+	}
+	
+	/**
+	 * Indents each new line, so that JSON rendered on its own can be nested
+	 * inside the pretty printed envelope
+	 */
+	private static class IndentingWriter extends Writer {
+		private Writer writer;
+		
+		public IndentingWriter(Writer writer) {
+			this.writer = writer;
+		}
+		
+		@Override
+		public void write(char[] buffer, int offset, int length) throws IOException {
+			int start = offset;
+			for (int i = offset; i < offset + length; i++) {
+				if (buffer[i] == '\n') {
+					writer.write(buffer, start, i + 1 - start);
+					writer.write(INDENT);
+					start = i + 1;
+				}
+			}
+			writer.write(buffer, start, offset + length - start);
+		}
+		
+		@Override
+		public void flush() throws IOException {
+			writer.flush();
+		}
+		
+		@Override
+		public void close() throws IOException {
+			writer.close();
 		}
-		return methods;
 	}
 	
 	private Type getType(Class<?> typeClass) {
@@ -0,0 +1,140 @@
+package org.daverog.jaxrs.iodocs;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.daverog.jaxrs.iodocs.IoDocsDiagnostic.Code;
+import org.daverog.jaxrs.iodocs.IoDocsDiagnostic.Severity;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Collects consistency problems while the I/O Docs are being generated.
+ *
+ * The checks are called from within the generator's traversal of the JAX-RS
+ * classes, so linting does not require a second pass. Pass a linter to
+ * {@link IoDocsGenerator#generateIoDocs} and read the diagnostics afterwards,
+ * or create it as fail-fast to abort generation on the first error.
+ */
+public class IoDocsLinter {
+
+	private static final Pattern templateParameter = Pattern.compile("\\{\\s*([^}:\\s]+)\\s*(:[^}]*)?\\}");
+	private static final Pattern colonParameter = Pattern.compile(":([\\w.-]+)");
+
+	private boolean failFast;
+	private List<IoDocsDiagnostic> diagnostics = Lists.newArrayList();
+
+	public IoDocsLinter() {
+		this(false);
+	}
+
+	/**
+	 * @param failFast If true, an {@link IoDocsValidationException} is thrown as
+	 *        soon as a diagnostic with severity ERROR is reported
+	 */
+	public IoDocsLinter(boolean failFast) {
+		this.failFast = failFast;
+	}
+
+	public List<IoDocsDiagnostic> getDiagnostics() {
+		return Collections.unmodifiableList(diagnostics);
+	}
+
+	public boolean hasErrors() {
+		for (IoDocsDiagnostic diagnostic : diagnostics) {
+			if (diagnostic.getSeverity() == Severity.ERROR) return true;
+		}
+		return false;
+	}
+
+	void checkPathParameters(String source, String path, List<String> pathParameters) {
+		Set<String> templateNames = getTemplateNames(path);
+		for (String pathParameter : pathParameters) {
+			if (!templateNames.contains(pathParameter))
+				report(Code.PATH_PARAMETER_NOT_IN_PATH, source + "(" + pathParameter + ")",
+					"Path parameter '" + pathParameter + "' does not appear in path '" + path + "'");
+		}
+	}
+
+	void duplicateMethod(String source, String resourceName, String name) {
+		report(Code.DUPLICATE_METHOD_NAME, source,
+			"Method name '" + name + "' is already in use in resource '" 
+			+ resourceName + "' and has been overwritten");
+	}
+
+	void duplicateResourceName(String source, String resourceName, Class<?> otherEndpoint) {
+		report(Code.DUPLICATE_RESOURCE_NAME, source,
+			"Resource name '" + resourceName + "' is also used by " + otherEndpoint.getName()
+			+ ", so their methods are merged into one resource");
+	}
+
+	void checkEnumeration(String source, Object defaultValue,
+			List<String> enumeration, List<String> enumDescriptions) {
+		if (!enumDescriptions.isEmpty() && enumeration.size() != enumDescriptions.size())
+			report(Code.ENUMERATION_SIZE_MISMATCH, source,
+				"Enumeration size (" + enumeration.size()
+				+ ") is not equal to enumeration description size ("
+				+ enumDescriptions.size() + ")");
+		if (defaultValue != null && !enumeration.isEmpty()
+				&& !enumeration.contains(defaultValue + ""))
+			report(Code.DEFAULT_NOT_IN_ENUMERATION, source,
+				"Default value '" + defaultValue + "' is not one of " + enumeration);
+	}
+
+	void unsupportedAnnotation(String source, Annotation annotation) {
+		report(Code.UNSUPPORTED_ANNOTATION, source,
+			"@" + annotation.annotationType().getSimpleName() + " is not supported by I/O Docs");
+	}
+
+	void ignoredAnnotation(String source, Annotation annotation, String reason) {
+		report(Code.IGNORED_ANNOTATION, source,
+			"@" + annotation.annotationType().getSimpleName() + " is ignored because " + reason);
+	}
+
+	void undocumentedParameter(String source, Class<?> typeClass) {
+		report(Code.UNDOCUMENTED_PARAMETER, source,
+			"Parameter of type " + typeClass.getName() + " is not recognised and will not be documented");
+	}
+
+	void unresolvedSubResource(String source, Class<?> returnType) {
+		report(Code.UNRESOLVED_SUB_RESOURCE, source,
+			"Sub-resource locator returns " + returnType.getName() + ", so its methods cannot be documented");
+	}
+
+	/**
+	 * Reports diagnostics found by an earlier generation, e.g. one whose
+	 * I/O Docs have been cached
+	 */
+	void replay(List<IoDocsDiagnostic> earlierDiagnostics) {
+		for (IoDocsDiagnostic diagnostic : earlierDiagnostics) {
+			report(diagnostic);
+		}
+	}
+
+	private void report(Code code, String source, String message) {
+		report(new IoDocsDiagnostic(code, source, message));
+	}
+
+	private void report(IoDocsDiagnostic diagnostic) {
+		diagnostics.add(diagnostic);
+		if (failFast && diagnostic.getSeverity() == Severity.ERROR)
+			throw new IoDocsValidationException(diagnostic);
+	}
+
+	private Set<String> getTemplateNames(String path) {
+		Set<String> names = Sets.newHashSet();
+		Matcher braces = templateParameter.matcher(path);
+		while (braces.find()) names.add(braces.group(1));
+
+		//Mashery style ':name' parameters, outside of any JAX-RS regular expressions
+		Matcher colons = colonParameter.matcher(braces.replaceAll(""));
+		while (colons.find()) names.add(colons.group(1));
+		return names;
+	}
+
+}
@@ -1,10 +1,13 @@
 package org.daverog.jaxrs.iodocs;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 public class IoDocsMethod {
@@ -14,19 +17,64 @@ public class IoDocsMethod {
 	private String description;
 	private String path;
 	private List<IoDocsParameter> parameters;
+	private List<Set<String>> entitlements;
+	private String source;
+	private Class<?> subResource;
 	
 	public IoDocsMethod(
 			String name, String httpMethod, String description,
 			String path, List<IoDocsParameter> parameters) {
+		this(name, httpMethod, description, path, parameters, 
+			Lists.<Set<String>>newArrayList(), name, null);
+	}
+	
+	/**
+	 * @param entitlements For each IoDocsEntitlement on the method (or the locators
+	 *        through which it is reached), the entitlements of which one is needed
+	 * @param source The JAX-RS class and method, used to report diagnostics
+	 * @param subResource For sub-resource locators, the class of the sub-resource
+	 */
+	IoDocsMethod(
+			String name, String httpMethod, String description,
+			String path, List<IoDocsParameter> parameters,
+			List<Set<String>> entitlements, String source, Class<?> subResource) {
 		this.name = name;
 		this.httpMethod = httpMethod;
 		this.description = description;
 		this.path = path;
 		this.parameters = parameters;
+		this.entitlements = entitlements;
+		this.source = source;
+		this.subResource = subResource;
+	}
+	
+	/**
+	 * @param locatorPrefix True if the path prefix is a locator's, which is joined
+	 *        to the path with a single '/', otherwise the paths are concatenated
+	 * @return A copy of this method as reached through an endpoint or sub-resource
+	 *         locator with the given name, path, parameters and entitlements
+	 */
+	IoDocsMethod withPrefix(
+			String namePrefix, String pathPrefix, boolean locatorPrefix,
+			List<IoDocsParameter> parameterPrefix,
+			List<Set<String>> entitlementPrefix) {
+		List<IoDocsParameter> prefixedParameters = Lists.newArrayList(parameterPrefix);
+		prefixedParameters.addAll(parameters);
+		List<Set<String>> prefixedEntitlements = Lists.newArrayList(entitlementPrefix);
+		prefixedEntitlements.addAll(entitlements);
+		return new IoDocsMethod(
+			namePrefix + name, httpMethod, description, 
+			locatorPrefix ? joinPaths(pathPrefix, path) : pathPrefix + path, prefixedParameters, 
+			prefixedEntitlements, source, subResource);
 	}
 
 	public LinkedHashMap<String, Object> getData(
 			List<IoDocsParameter> baseParameters) {
+		return getData(baseParameters, new IoDocsLinter());
+	}
+
+	LinkedHashMap<String, Object> getData(
+			List<IoDocsParameter> baseParameters, IoDocsLinter linter) {
 		LinkedHashMap<String, Object> method = Maps.newLinkedHashMap();
 		
 		method.put("httpMethod", httpMethod);
@@ -36,7 +84,7 @@ public class IoDocsMethod {
 			method.put("description", description);
 
 		LinkedHashMap<String, Object> parameterData = 
-				getParameterData(baseParameters);
+				getParameterData(baseParameters, linter);
 		
 		if (!parameterData.isEmpty()) {
 			method.put("parameters", parameterData);
@@ -46,12 +94,13 @@ public class IoDocsMethod {
 	}
 
 	private LinkedHashMap<String, Object> getParameterData(
-			List<IoDocsParameter> extensionParameters) {
+			List<IoDocsParameter> extensionParameters, IoDocsLinter linter) {
 		LinkedHashMap<String, Object> parameterData = Maps.newLinkedHashMap();
 
 		for (IoDocsParameter parameter : parameters){
 			parameter.extend(extensionParameters);
-			parameterData.put(parameter.getName(), parameter.getData());
+			parameterData.put(parameter.getName(), 
+					parameter.getData(source, linter));
 		}
 		
 		return parameterData;
@@ -60,5 +109,54 @@ public class IoDocsMethod {
 	public String getName() {
 		return name;
 	}
+	
+	String getPath() {
+		return path;
+	}
+	
+	List<IoDocsParameter> getParameters() {
+		return parameters;
+	}
+	
+	List<String> getPathParameterNames() {
+		List<String> pathParameterNames = Lists.newArrayList();
+		for (IoDocsParameter parameter : parameters) {
+			if (parameter.getPathParameterName() != null)
+				pathParameterNames.add(parameter.getPathParameterName());
+		}
+		return pathParameterNames;
+	}
+	
+	List<Set<String>> getEntitlements() {
+		return entitlements;
+	}
+	
+	/**
+	 * @return True if the given entitlements include one of each of the
+	 *         sets of entitlements needed to see this method
+	 */
+	boolean isVisibleTo(Set<String> grantedEntitlements) {
+		for (Set<String> anyOf : entitlements) {
+			if (Collections.disjoint(anyOf, grantedEntitlements)) return false;
+		}
+		return true;
+	}
+	
+	String getSource() {
+		return source;
+	}
+	
+	Class<?> getSubResource() {
+		return subResource;
+	}
+	
+	private static String joinPaths(String parent, String child) {
+		if (parent.isEmpty() || child.isEmpty()) return parent + child;
+		if (parent.endsWith("/") && child.startsWith("/")) 
+			return parent + child.substring(1);
+		if (!parent.endsWith("/") && !child.startsWith("/"))
+			return parent + "/" + child;
+		return parent + child;
+	}
 
 }
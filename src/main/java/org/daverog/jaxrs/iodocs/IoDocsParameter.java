@@ -55,6 +55,13 @@ public class IoDocsParameter {
 	}
 
 	public LinkedHashMap<String, Object> getData() {
+		return getData("", new IoDocsLinter());
+	}
+
+	/**
+	 * @param methodSource The JAX-RS class and method, used to report diagnostics
+	 */
+	LinkedHashMap<String, Object> getData(String methodSource, IoDocsLinter linter) {
 		LinkedHashMap<String, Object> data = Maps.newLinkedHashMap();
 
 		if (type == Type.BOOLEAN) {
@@ -78,6 +85,9 @@ public class IoDocsParameter {
 		
 		if (required) data.put("required", true);
 
+		linter.checkEnumeration(methodSource + "(" + name + ")", 
+				defaultValue, enumeration, enumDescriptions);
+
 		if (!enumDescriptions.isEmpty()	&& enumeration.size() != enumDescriptions.size()) {
 			data.put("warning", "Enumeration size ("
 				+ enumeration.size()
@@ -103,6 +113,10 @@ public class IoDocsParameter {
 		}
 	}
 
+	String getPathParameterName() {
+		return location == Location.pathReplace ? name : null;
+	}
+
 	public void extend(List<IoDocsParameter> extensionParameters) {
 		for (IoDocsParameter extension : extensionParameters) {
 			if (extension.name.equals(name) &&
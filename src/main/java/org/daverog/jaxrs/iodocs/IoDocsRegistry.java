@@ -0,0 +1,141 @@
+package org.daverog.jaxrs.iodocs;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.SetMultimap;
+
+/**
+ * Serves the I/O Docs of one API to many tenants.
+ * 
+ * The JAX-RS classes are analysed once, when the registry is created, into a
+ * model that is shared by all tenants and never modified. Each tenant's view
+ * is rendered from the model, showing only the methods the tenant is entitled
+ * to see, with the tenant's own base path and API key settings where these
+ * override the registry's config. Rendered views
+ * are kept in a concurrent cache of bounded size, evicting the least recently
+ * used views first.
+ */
+public class IoDocsRegistry {
+
+	private final IoDocsGenerator generator = new IoDocsGenerator();
+	private final IoDocsConfig config;
+	private final ImmutableList<RegisteredMethod> methods;
+	private final LoadingCache<IoDocsTenant, String> views;
+
+	public IoDocsRegistry(
+			IoDocsConfig config,
+			Class<?>[] endpoints,
+			long maximumViews) {
+		this(config, endpoints, maximumViews, new IoDocsLinter());
+	}
+
+	/**
+	 * @param config The API details and default settings, which tenants may override
+	 * @param endpoints The classes that contain JAX-RS annotated RESTful methods
+	 * @param maximumViews The number of rendered tenant views to keep
+	 * @param linter Receives any problems found while analysing the endpoints
+	 */
+	public IoDocsRegistry(
+			IoDocsConfig config,
+			Class<?>[] endpoints,
+			long maximumViews,
+			IoDocsLinter linter) {
+		this.config = config;
+		
+		ImmutableList.Builder<RegisteredMethod> methods = ImmutableList.builder();
+		SetMultimap<String, String> resourceMethodNames = HashMultimap.create();
+		ListMultimap<Class<?>, IoDocsMethod> endpointMethods = generator.getMethods(endpoints, linter);
+		generator.checkResourceNames(config, endpointMethods.keySet(), linter);
+		for (Map.Entry<Class<?>, IoDocsMethod> entry : endpointMethods.entries()) {
+			IoDocsMethod method = entry.getValue();
+			String resourceName = config.getResourceName(entry.getKey());
+			if (!resourceMethodNames.put(resourceName, method.getName()))
+				linter.duplicateMethod(method.getSource(), resourceName, method.getName());
+			methods.add(new RegisteredMethod(resourceName, method, 
+					method.getData(config.getExtensionParameters(), linter)));
+		}
+		this.methods = methods.build();
+		
+		this.views = CacheBuilder.newBuilder()
+			.maximumSize(maximumViews)
+			.build(new CacheLoader<IoDocsTenant, String>() {
+				@Override
+				public String load(IoDocsTenant tenant) {
+					return render(tenant);
+				}
+			});
+	}
+
+	/**
+	 * @return The I/O Docs JSON as seen by the given tenant
+	 */
+	public String getIoDocs(IoDocsTenant tenant) {
+		return views.getUnchecked(tenant);
+	}
+
+	/**
+	 * @return The hit, miss and eviction counts of the rendered tenant views
+	 */
+	public CacheStats getStats() {
+		return views.stats();
+	}
+
+	/**
+	 * Discards all rendered tenant views
+	 */
+	public void invalidateAll() {
+		views.invalidateAll();
+	}
+
+	private String render(IoDocsTenant tenant) {
+		LinkedHashMap<String, Object> resources = generator.createResources(config);
+		int methodCount = 0;
+		for (RegisteredMethod method : methods) {
+			if (method.method.isVisibleTo(tenant.getEntitlements())) {
+				generator.addMethodData(resources, method.resourceName, 
+						method.method.getName(), method.data);
+				methodCount++;
+			}
+		}
+		return generator.render(getTenantConfig(tenant), resources, methodCount);
+	}
+
+	private IoDocsConfig getTenantConfig(IoDocsTenant tenant) {
+		if (tenant.getBasePath() == null && tenant.getKeyParam() == null) return config;
+		
+		IoDocsConfig.Builder tenantConfig = config.toBuilder();
+		if (tenant.getBasePath() != null)
+			tenantConfig.basePath(tenant.getBasePath());
+		if (IoDocsTenant.HEADER.equals(tenant.getKeyLocation()))
+			tenantConfig.headerKey(tenant.getKeyParam());
+		else if (IoDocsTenant.QUERY.equals(tenant.getKeyLocation()))
+			tenantConfig.queryKey(tenant.getKeyParam());
+		return tenantConfig.build();
+	}
+
+	/**
+	 * A method of the shared model, with the resource it belongs to and its 
+	 * I/O Docs data, which is never modified once the registry is created
+	 */
+	private static class RegisteredMethod {
+		private final String resourceName;
+		private final IoDocsMethod method;
+		private final LinkedHashMap<String, Object> data;
+
+		private RegisteredMethod(String resourceName, IoDocsMethod method, 
+				LinkedHashMap<String, Object> data) {
+			this.resourceName = resourceName;
+			this.method = method;
+			this.data = data;
+		}
+	}
+
+}
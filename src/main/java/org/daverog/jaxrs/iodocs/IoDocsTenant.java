@@ -0,0 +1,92 @@
+package org.daverog.jaxrs.iodocs;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Set;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * The settings for one tenant's view of the I/O Docs held by an IoDocsRegistry.
+ * 
+ * Tenants are compared by value, so a tenant with changed settings gets a new view.
+ */
+public class IoDocsTenant {
+
+	public static final String QUERY = "query";
+	public static final String HEADER = "header";
+
+	private final String id;
+	private final String basePath;
+	private final String keyLocation;
+	private final String keyParam;
+	private final ImmutableSet<String> entitlements;
+
+	/**
+	 * A tenant that uses the auth settings of the registry's config
+	 */
+	public IoDocsTenant(String id, String basePath, Set<String> entitlements) {
+		this(id, basePath, null, null, entitlements);
+	}
+
+	/**
+	 * @param id Identifies the tenant
+	 * @param basePath The base path from which all paths are relative, or null 
+	 *        to use the registry config's base path
+	 * @param keyLocation Where the API key is passed, QUERY or HEADER, or null 
+	 *        to use the registry config's auth settings
+	 * @param keyParam The name of the API key parameter
+	 * @param entitlements Methods marked with IoDocsEntitlement are only shown 
+	 *        if the tenant holds one of the method's entitlements
+	 */
+	public IoDocsTenant(String id, String basePath, 
+			String keyLocation, String keyParam, Set<String> entitlements) {
+		checkArgument(keyLocation == null || QUERY.equals(keyLocation) || HEADER.equals(keyLocation),
+			"The key location must be query or header");
+		checkArgument((keyLocation == null) == (keyParam == null),
+			"The key location and parameter must be given together");
+		this.id = id;
+		this.basePath = basePath;
+		this.keyLocation = keyLocation;
+		this.keyParam = keyParam;
+		this.entitlements = ImmutableSet.copyOf(entitlements);
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getBasePath() {
+		return basePath;
+	}
+
+	public String getKeyLocation() {
+		return keyLocation;
+	}
+
+	public String getKeyParam() {
+		return keyParam;
+	}
+
+	public Set<String> getEntitlements() {
+		return entitlements;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof IoDocsTenant)) return false;
+		IoDocsTenant tenant = (IoDocsTenant) other;
+		return Objects.equal(id, tenant.id)
+			&& Objects.equal(basePath, tenant.basePath)
+			&& Objects.equal(keyLocation, tenant.keyLocation)
+			&& Objects.equal(keyParam, tenant.keyParam)
+			&& entitlements.equals(tenant.entitlements);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(id, basePath, keyLocation, keyParam, entitlements);
+	}
+
+}
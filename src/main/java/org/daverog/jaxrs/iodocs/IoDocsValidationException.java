@@ -0,0 +1,21 @@
+package org.daverog.jaxrs.iodocs;
+
+/**
+ * Thrown by a fail-fast {@link IoDocsLinter} when the first error is found.
+ */
+public class IoDocsValidationException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private IoDocsDiagnostic diagnostic;
+
+	public IoDocsValidationException(IoDocsDiagnostic diagnostic) {
+		super(diagnostic.toString());
+		this.diagnostic = diagnostic;
+	}
+
+	public IoDocsDiagnostic getDiagnostic() {
+		return diagnostic;
+	}
+
+}
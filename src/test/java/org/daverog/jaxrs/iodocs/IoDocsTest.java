@@ -1,9 +1,16 @@
 package org.daverog.jaxrs.iodocs;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.util.Set;
+import java.util.SortedMap;
+
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.FormParam;
 import javax.ws.rs.GET;
 import javax.ws.rs.HeaderParam;
 import javax.ws.rs.PUT;
@@ -13,18 +20,28 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Request;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.cxf.jaxrs.model.wadl.Description;
 import org.apache.cxf.jaxrs.model.wadl.Descriptions;
 import org.apache.cxf.jaxrs.model.wadl.DocTarget;
+import org.daverog.jaxrs.iodocs.IoDocsConfig.ResourceGrouping;
+import org.daverog.jaxrs.iodocs.IoDocsDiagnostic.Code;
 import org.daverog.jaxrs.iodocs.IoDocsParameter.Location;
 import org.daverog.jaxrs.iodocs.IoDocsParameter.Type;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 public class IoDocsTest {
 	
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+	
 	@Test
 	public void a_couple_of_APIs_are_correctly_converted_to_IO_Docs_JSON() {
 		assertEquals(
@@ -114,6 +131,413 @@ public class IoDocsTest {
 			"\"warning\": \"Enumeration size (2) is not equal to enumeration description size (3)\""));
 	}
 	
+	@Test
+	public void path_parameters_missing_from_the_path_are_reported() {
+		IoDocsLinter linter = lint(MissingPathParamApi.class);
+		assertEquals(1, linter.getDiagnostics().size());
+		assertEquals(Code.PATH_PARAMETER_NOT_IN_PATH, linter.getDiagnostics().get(0).getCode());
+		assertEquals("MissingPathParamApi.query(other)", linter.getDiagnostics().get(0).getSource());
+	}
+	
+	@Test
+	public void duplicate_method_names_are_reported() {
+		IoDocsLinter linter = lint(DuplicateNameApi.class);
+		assertEquals(1, linter.getDiagnostics().size());
+		assertEquals(Code.DUPLICATE_METHOD_NAME, linter.getDiagnostics().get(0).getCode());
+		assertTrue(linter.getDiagnostics().get(0).getSource().startsWith("DuplicateNameApi."));
+	}
+	
+	@Test
+	public void a_method_name_may_be_reused_in_a_different_resource() {
+		IoDocsConfig config = config().resourceGrouping(ResourceGrouping.ENDPOINT).build();
+		Class<?>[] endpoints = new Class<?>[]{SameNameApi.class, OtherSameNameApi.class};
+		IoDocsLinter linter = new IoDocsLinter(true);
+		
+		String ioDocs = new IoDocsGenerator().generateIoDocs(config, endpoints, linter);
+		new IoDocsRegistry(config, endpoints, 10, linter);
+		
+		assertTrue(linter.getDiagnostics().isEmpty());
+		assertEquals(2, ioDocs.split("\"sameName\"").length - 1);
+	}
+	
+	@Test
+	public void endpoints_with_the_same_simple_name_are_reported() {
+		IoDocsConfig config = config().resourceGrouping(ResourceGrouping.ENDPOINT).build();
+		Class<?>[] endpoints = new Class<?>[]{Orders.Api.class, Baskets.Api.class};
+		IoDocsLinter generatorLinter = new IoDocsLinter();
+		IoDocsLinter registryLinter = new IoDocsLinter();
+		
+		new IoDocsGenerator().generateIoDocs(config, endpoints, generatorLinter);
+		new IoDocsRegistry(config, endpoints, 10, registryLinter);
+		
+		for (IoDocsLinter linter : Lists.newArrayList(generatorLinter, registryLinter)) {
+			assertEquals(1, linter.getDiagnostics().size());
+			assertEquals(Code.DUPLICATE_RESOURCE_NAME, linter.getDiagnostics().get(0).getCode());
+			assertTrue(linter.getDiagnostics().get(0).getMessage().contains(Orders.Api.class.getName()));
+		}
+	}
+	
+	@Test
+	public void default_values_outside_of_the_enumeration_are_reported() {
+		IoDocsLinter linter = lint(DefaultNotInEnumApi.class);
+		assertEquals(1, linter.getDiagnostics().size());
+		assertEquals(Code.DEFAULT_NOT_IN_ENUMERATION, linter.getDiagnostics().get(0).getCode());
+		assertEquals("DefaultNotInEnumApi.query(letter)", linter.getDiagnostics().get(0).getSource());
+	}
+	
+	@Test
+	public void unsupported_annotations_and_undocumented_parameters_are_reported() {
+		IoDocsLinter linter = lint(UnsupportedApi.class);
+		assertEquals(2, linter.getDiagnostics().size());
+		assertEquals(Code.UNSUPPORTED_ANNOTATION, linter.getDiagnostics().get(0).getCode());
+		assertEquals(Code.UNDOCUMENTED_PARAMETER, linter.getDiagnostics().get(1).getCode());
+		assertEquals("UnsupportedApi.query(requestBody)", linter.getDiagnostics().get(0).getSource());
+		assertEquals("UnsupportedApi.query(1)", linter.getDiagnostics().get(1).getSource());
+		assertFalse(linter.hasErrors());
+	}
+	
+	@Test
+	public void ignored_parameter_annotations_are_reported() {
+		IoDocsLinter linter = lint(IgnoredParameterApi.class);
+		assertEquals(2, linter.getDiagnostics().size());
+		assertEquals(Code.IGNORED_ANNOTATION, linter.getDiagnostics().get(0).getCode());
+		assertEquals("IgnoredParameterApi.query(page)", linter.getDiagnostics().get(0).getSource());
+		assertTrue(linter.getDiagnostics().get(0).getMessage().startsWith("@DefaultValue"));
+		assertEquals(Code.IGNORED_ANNOTATION, linter.getDiagnostics().get(1).getCode());
+		assertEquals("IgnoredParameterApi.query(1)", linter.getDiagnostics().get(1).getSource());
+		assertTrue(linter.getDiagnostics().get(1).getMessage().startsWith("@IoDocsRequired"));
+	}
+	
+	@Test
+	public void linting_does_not_change_the_documented_parameters() {
+		String ioDocs = new IoDocsGenerator().generateIoDocs(
+			config().build(), new Class<?>[]{UnsupportedApi.class});
+		assertTrue(ioDocs.contains("\"requestBody\": {\n              \"type\": \"textarea\""));
+	}
+	
+	@Test
+	public void valid_APIs_have_no_diagnostics() {
+		IoDocsLinter linter = lint(PingApi.class, QueryApi.class, EnumApi.class, PathApi.class, HeaderApi.class, PutBodyApi.class);
+		assertTrue(linter.getDiagnostics().toString(), linter.getDiagnostics().isEmpty());
+	}
+	
+	@Test
+	public void a_fail_fast_linter_stops_generation_at_the_first_error() {
+		try {
+			new IoDocsGenerator().generateIoDocs(
+				"name", "title", 
+				"description", "1.0", 
+				"http://api.com/", 
+				new Class<?>[]{MissingPathParamApi.class},
+				Lists.<IoDocsParameter>newArrayList(),
+				new IoDocsLinter(true));
+			fail("Expected an IoDocsValidationException");
+		} catch (IoDocsValidationException e) {
+			assertEquals(Code.PATH_PARAMETER_NOT_IN_PATH, e.getDiagnostic().getCode());
+		}
+	}
+	
+	@Test
+	public void the_caching_generator_serves_unchanged_APIs_from_the_cache_directory() throws Exception {
+		File cacheDirectory = new File(temporaryFolder.getRoot(), "cache");
+		IoDocsCachingGenerator generator = new IoDocsCachingGenerator(cacheDirectory);
+		
+		String generated = generator.generateIoDocs(
+			"name", "title", 
+			"description", "1.0", 
+			"http://api.com/", 
+			new Class<?>[]{PathApi.class},
+			Lists.<IoDocsParameter>newArrayList());
+		assertEquals(loadClasspathResourceAsString("path-param.json"), generated);
+		
+		String key = generator.getKey(config().build(), new Class<?>[]{PathApi.class});
+		assertEquals(3, cacheDirectory.listFiles().length);
+		FileUtils.writeStringToFile(new File(cacheDirectory, key + ".json"), "cached", "UTF-8");
+		
+		assertEquals("cached", generator.generateIoDocs(
+			"name", "title", 
+			"description", "1.0", 
+			"http://api.com/", 
+			new Class<?>[]{PathApi.class},
+			Lists.<IoDocsParameter>newArrayList()));
+	}
+	
+	@Test
+	public void the_cache_key_covers_every_generator_class() {
+		Set<String> classNames = IoDocsCachingGenerator.getGeneratorClassNames();
+		assertTrue(classNames.contains(IoDocsLinter.class.getName()));
+		assertTrue(classNames.contains(IoDocsDiagnostic.Code.class.getName()));
+		assertTrue(classNames.contains(IoDocsConfig.Builder.class.getName()));
+		assertTrue(classNames.contains(IoDocsGenerator.class.getName() + "$IndentingWriter"));
+		assertTrue(classNames.contains(IoDocsCachingGenerator.class.getName() + "$1"));
+	}
+	
+	@Test
+	public void entries_for_other_keys_are_removed_from_the_cache_directory() {
+		File cacheDirectory = new File(temporaryFolder.getRoot(), "cache");
+		IoDocsCachingGenerator generator = new IoDocsCachingGenerator(cacheDirectory);
+		generator.generateIoDocs(config().build(), new Class<?>[]{PathApi.class});
+		String oldKey = generator.getKey(config().build(), new Class<?>[]{PathApi.class});
+		
+		generator.generateIoDocs(config().build(), new Class<?>[]{HeaderApi.class});
+		String newKey = generator.getKey(config().build(), new Class<?>[]{HeaderApi.class});
+		assertEquals(3, cacheDirectory.listFiles().length);
+		assertFalse(new File(cacheDirectory, oldKey + ".json").exists());
+		assertTrue(new File(cacheDirectory, newKey + ".json").exists());
+	}
+	
+	@Test
+	public void a_cache_hit_does_not_reflect_over_the_endpoints() {
+		ReflectionCountingGenerator generator = new ReflectionCountingGenerator(temporaryFolder.getRoot());
+		Class<?>[] endpoints = new Class<?>[]{OrderApi.class, BasketApi.class};
+		String generated = generator.generateIoDocs(config().build(), endpoints);
+		assertTrue(generator.reflections > 0);
+		
+		generator = new ReflectionCountingGenerator(temporaryFolder.getRoot());
+		assertEquals(generated, generator.generateIoDocs(config().build(), endpoints));
+		assertEquals(0, generator.reflections);
+	}
+	
+	@Test
+	public void diagnostics_are_reported_again_when_the_IO_Docs_are_served_from_the_cache() {
+		IoDocsCachingGenerator generator = new IoDocsCachingGenerator(temporaryFolder.getRoot());
+		IoDocsLinter coldLinter = new IoDocsLinter();
+		String generated = generator.generateIoDocs(
+			config().build(), new Class<?>[]{MissingPathParamApi.class}, coldLinter);
+		assertEquals(1, coldLinter.getDiagnostics().size());
+		
+		IoDocsLinter cachedLinter = new IoDocsLinter();
+		assertEquals(generated, generator.generateIoDocs(
+			config().build(), new Class<?>[]{MissingPathParamApi.class}, cachedLinter));
+		assertEquals(1, cachedLinter.getDiagnostics().size());
+		assertEquals(Code.PATH_PARAMETER_NOT_IN_PATH, cachedLinter.getDiagnostics().get(0).getCode());
+		assertEquals("MissingPathParamApi.query(other)", cachedLinter.getDiagnostics().get(0).getSource());
+		
+		try {
+			generator.generateIoDocs(
+				config().build(), new Class<?>[]{MissingPathParamApi.class}, new IoDocsLinter(true));
+			fail("Expected an IoDocsValidationException");
+		} catch (IoDocsValidationException e) {
+			assertEquals(Code.PATH_PARAMETER_NOT_IN_PATH, e.getDiagnostic().getCode());
+		}
+	}
+	
+	@Test
+	public void the_cache_key_changes_with_the_endpoints_and_extension_parameters() {
+		IoDocsCachingGenerator generator = new IoDocsCachingGenerator(temporaryFolder.getRoot());
+		String key = generator.getKey(config().build(), new Class<?>[]{PathApi.class});
+		
+		assertEquals(key, generator.getKey(config().build(), new Class<?>[]{PathApi.class}));
+		assertFalse(key.equals(generator.getKey(config().build(), new Class<?>[]{HeaderApi.class})));
+		assertFalse(key.equals(generator.getKey(config()
+			.extensionParameters(Lists.<IoDocsParameter>newArrayList(new IoDocsParameter(
+				"pathParam", "A path parameter", Location.pathReplace, Type.STRING, false, null)))
+			.build(), 
+			new Class<?>[]{PathApi.class})));
+		assertFalse(key.equals(generator.getKey(config().headerKey("X-Api-Key").build(), 
+			new Class<?>[]{PathApi.class})));
+		assertFalse(key.equals(generator.getKey(config().resourceName("Other Methods").build(), 
+			new Class<?>[]{PathApi.class})));
+	}
+	
+	@Test
+	public void endpoint_and_method_paths_are_concatenated_but_locator_paths_are_joined() {
+		String ioDocs = new IoDocsGenerator().generateIoDocs(config().build(), 
+			new Class<?>[]{UnslashedApi.class, DoubleSlashedApi.class, UnslashedLocatorApi.class});
+		assertTrue(ioDocs.contains("\"path\": \"/apiusers\""));
+		assertTrue(ioDocs.contains("\"path\": \"/api//users\""));
+		assertTrue(ioDocs.contains("\"path\": \"/accounts/current/preferences\""));
+	}
+	
+	@Test
+	public void annotations_are_inherited_from_generic_interfaces() {
+		IoDocsLinter linter = new IoDocsLinter();
+		String ioDocs = new IoDocsGenerator().generateIoDocs(
+			config().build(), new Class<?>[]{StringCrudApi.class}, linter);
+		assertTrue(linter.getDiagnostics().toString(), linter.getDiagnostics().isEmpty());
+		assertTrue(ioDocs.contains("\"StringCrudApi_put\""));
+		assertTrue(ioDocs.contains("\"httpMethod\": \"PUT\""));
+		assertTrue(ioDocs.contains("\":id\""));
+		assertTrue(ioDocs.contains("\"requestBody\""));
+	}
+	
+	@Test
+	public void sub_resource_locators_and_inherited_annotations_are_supported() {
+		assertEquals(
+			loadClasspathResourceAsString("sub-resource.json"), 
+			new IoDocsGenerator().generateIoDocs(
+				"name", 
+				"title", 
+				"description", 
+				"1.0", 
+				"http://api.com/", 
+				new Class<?>[]{OrderApi.class},
+				Lists.<IoDocsParameter>newArrayList()));
+	}
+	
+	@Test
+	public void annotations_on_an_overriding_method_take_precedence_over_inherited_ones() {
+		String ioDocs = new IoDocsGenerator().generateIoDocs(
+			config().build(), new Class<?>[]{OverridingApi.class});
+		assertTrue(ioDocs, ioDocs.contains("\"fromImpl\""));
+		assertFalse(ioDocs, ioDocs.contains("\"fromInterface\""));
+		assertTrue(ioDocs, ioDocs.contains("\"description\": \"Impl description\""));
+		assertTrue(ioDocs, ioDocs.contains("\"default\": \"impl\""));
+		assertFalse(ioDocs, ioDocs.contains("Interface description"));
+	}
+	
+	@Test
+	public void shared_sub_resources_are_only_analysed_once() {
+		IoDocsLinter linter = lint(OrderApi.class, BasketApi.class);
+		assertEquals(1, linter.getDiagnostics().size());
+		assertEquals(Code.UNDOCUMENTED_PARAMETER, linter.getDiagnostics().get(0).getCode());
+		assertEquals("ItemApi.update(1)", linter.getDiagnostics().get(0).getSource());
+	}
+	
+	@Test
+	public void the_single_resource_is_rendered_even_without_methods() {
+		String ioDocs = new IoDocsGenerator().generateIoDocs(
+			"name", "title", 
+			"description", "1.0", 
+			"http://api.com/", 
+			new Class<?>[]{},
+			Lists.<IoDocsParameter>newArrayList());
+		String basicView = new IoDocsRegistry(config().build(), 
+			new Class<?>[]{EntitledApi.class}, 10).getIoDocs(new IoDocsTenant(
+				"basic", "http://basic.api.com/", Sets.<String>newHashSet()));
+		
+		for (String json : Lists.newArrayList(ioDocs, basicView)) {
+			assertTrue(json, json.contains(
+				"\"resources\": {\n    \"Product Methods\": {\n      \"methods\": {}\n    }\n  }"));
+		}
+	}
+	
+	@Test
+	public void registry_views_only_show_the_methods_a_tenant_is_entitled_to() {
+		IoDocsRegistry registry = new IoDocsRegistry(config().build(),
+			new Class<?>[]{PingApi.class, EntitledApi.class}, 10);
+		
+		String basicView = registry.getIoDocs(new IoDocsTenant(
+			"basic", "http://basic.api.com/", Sets.<String>newHashSet()));
+		String premiumView = registry.getIoDocs(new IoDocsTenant(
+			"premium", "http://premium.api.com/", "header", "X-Api-Key", Sets.newHashSet("premium")));
+		
+		assertTrue(basicView.contains("\"PingApi_ping\""));
+		assertFalse(basicView.contains("\"EntitledApi_report\""));
+		assertTrue(basicView.contains("\"basePath\": \"http://basic.api.com/\""));
+		assertTrue(premiumView.contains("\"PingApi_ping\""));
+		assertTrue(premiumView.contains("\"EntitledApi_report\""));
+		assertTrue(premiumView.contains("\"param\": \"X-Api-Key\""));
+	}
+	
+	@Test
+	public void registry_views_are_cached_with_bounded_size() {
+		IoDocsRegistry registry = new IoDocsRegistry(config().build(),
+			new Class<?>[]{PingApi.class, EntitledApi.class}, 1);
+		IoDocsTenant basic = new IoDocsTenant("basic", "http://api.com/", Sets.<String>newHashSet());
+		IoDocsTenant premium = new IoDocsTenant("premium", "http://api.com/", Sets.newHashSet("premium"));
+		
+		String view = registry.getIoDocs(basic);
+		assertTrue(view == registry.getIoDocs(
+			new IoDocsTenant("basic", "http://api.com/", Sets.<String>newHashSet())));
+		registry.getIoDocs(premium);
+		registry.getIoDocs(basic);
+		
+		assertEquals(1, registry.getStats().hitCount());
+		assertEquals(3, registry.getStats().missCount());
+		assertEquals(2, registry.getStats().evictionCount());
+	}
+	
+	@Test
+	public void a_config_generates_the_same_IO_Docs_as_the_positional_arguments() {
+		IoDocsConfig config = config()
+			.extensionParameters(Lists.<IoDocsParameter>newArrayList(new IoDocsParameter(
+				"Accept", "Accept mime-type", 
+				Location.header, Type.STRING, true, 
+				"text/plain", 
+				Lists.<String>newArrayList("text/plain"), 
+				Lists.<String>newArrayList("Plain text"))))
+			.build();
+		IoDocsGenerator generator = new IoDocsGenerator();
+		
+		assertEquals(
+			loadClasspathResourceAsString("ping.json"), 
+			generator.generateIoDocs(config, new Class<?>[]{PingApi.class, QueryApi.class}));
+		assertEquals(
+			loadClasspathResourceAsString("path-param.json"), 
+			generator.generateIoDocs(config, new Class<?>[]{PathApi.class}));
+	}
+	
+	@Test
+	public void the_auth_scheme_protocol_and_grouping_can_be_configured() {
+		assertEquals(
+			loadClasspathResourceAsString("config.json"), 
+			new IoDocsGenerator().generateIoDocs(config()
+					.protocol("json-rpc")
+					.oauth2("http://api.com/", "/oauth/authorize", "/oauth/token")
+					.resourceGrouping(ResourceGrouping.ENDPOINT)
+					.build(), 
+				new Class<?>[]{PingApi.class, HeaderApi.class}));
+	}
+	
+	@Test
+	public void compact_IO_Docs_can_be_generated() {
+		String compact = new IoDocsGenerator().generateIoDocs(
+			config().headerKey("X-Api-Key").pretty(false).build(), 
+			new Class<?>[]{PathApi.class});
+		assertEquals(
+			"{\"name\":\"name\",\"title\":\"title\",\"description\":\"description\"," +
+			"\"version\":\"1.0\",\"basePath\":\"http://api.com/\",\"protocol\":\"rest\"," +
+			"\"auth\":{\"key\":{\"location\":\"header\",\"param\":\"X-Api-Key\"}}," +
+			"\"resources\":{\"Product Methods\":{\"methods\":{\"PathApi_query\":{" +
+			"\"httpMethod\":\"GET\",\"path\":\"/path/:pathParam\",\"parameters\":{" +
+			"\":pathParam\":{\"type\":\"string\",\"location\":\"pathReplace\"}}}}}}}", 
+			compact);
+	}
+	
+	@Test
+	public void the_positional_arguments_accept_missing_API_details_as_before() {
+		String ioDocs = new IoDocsGenerator().generateIoDocs(
+			null, null, null, null, null, 
+			new Class<?>[]{PathApi.class},
+			Lists.<IoDocsParameter>newArrayList());
+		assertEquals(
+			loadClasspathResourceAsString("path-param.json").replaceAll(
+				"  \"(name|title|description|version|basePath)\": \"[^\"]*\",\n", ""), 
+			ioDocs);
+		
+		assertTrue(new IoDocsGenerator().generateIoDocs(
+			" ", "title", "description", "1.0", "http://api.com/", 
+			new Class<?>[]{PathApi.class},
+			Lists.<IoDocsParameter>newArrayList()).contains("\"name\": \" \""));
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void a_config_is_validated_when_it_is_built() {
+		config().oauth2("http://api.com/", "/oauth/authorize", null).build();
+	}
+	
+	private IoDocsConfig.Builder config() {
+		return IoDocsConfig.builder()
+			.name("name")
+			.title("title")
+			.description("description")
+			.version("1.0")
+			.basePath("http://api.com/");
+	}
+	
+	private IoDocsLinter lint(Class<?>... endpoints) {
+		IoDocsLinter linter = new IoDocsLinter();
+		new IoDocsGenerator().generateIoDocs(
+			"name", "title", 
+			"description", "1.0", 
+			"http://api.com/", 
+			endpoints,
+			Lists.<IoDocsParameter>newArrayList(),
+			linter);
+		return linter;
+	}
+	
 	@Path("/ping")
 	public class PingApi {
 		@GET
@@ -180,6 +604,177 @@ public class IoDocsTest {
 			String pathParam) {}
 	}
 	
+	@Path("/path/{pathParam}")
+	public class MissingPathParamApi {
+		@GET
+		public void query(
+			@PathParam("pathParam") String pathParam,
+			@PathParam("other") String other) {}
+	}
+	
+	@Path("/duplicate")
+	public class DuplicateNameApi {
+		@GET
+		@IoDocsName("sameName")
+		public void first() {}
+		
+		@PUT
+		@IoDocsName("sameName")
+		public void second() {}
+	}
+	
+	@Path("/same-name")
+	public class SameNameApi {
+		@GET
+		@IoDocsName("sameName")
+		public void query() {}
+	}
+	
+	@Path("/other-same-name")
+	public class OtherSameNameApi {
+		@GET
+		@IoDocsName("sameName")
+		public void query() {}
+	}
+	
+	public class Orders {
+		@Path("/orders")
+		public class Api {
+			@GET
+			@IoDocsName("orders")
+			public void query() {}
+		}
+	}
+	
+	public class Baskets {
+		@Path("/baskets")
+		public class Api {
+			@GET
+			@IoDocsName("baskets")
+			public void query() {}
+		}
+	}
+	
+	@Path("/default-not-in-enum")
+	public class DefaultNotInEnumApi {
+		@GET
+		public void query(
+			@QueryParam("letter") 
+			@IoDocsEnum({"a", "b"}) 
+			@IoDocsDefaultString("c") 
+			String letter) {}
+	}
+	
+	@Path("/unsupported")
+	public class UnsupportedApi {
+		@GET
+		public void query(
+			@FormParam("form") String form,
+			Integer unannotated) {}
+	}
+	
+	@Path("/ignored")
+	public class IgnoredParameterApi {
+		@GET
+		public void query(
+			@QueryParam("page") @DefaultValue("1") Integer page,
+			@Context @IoDocsRequired Request request) {}
+	}
+	
+	@Path("/api")
+	public class UnslashedApi {
+		@GET
+		@Path("users")
+		public void users() {}
+	}
+	
+	@Path("/api/")
+	public class DoubleSlashedApi {
+		@GET
+		@Path("/users")
+		public void users() {}
+	}
+	
+	@Path("/accounts")
+	public class UnslashedLocatorApi {
+		@Path("/current")
+		public PreferencesApi current() { return null; }
+	}
+	
+	public class PreferencesApi {
+		@GET
+		@Path("preferences")
+		public void preferences() {}
+	}
+	
+	@Path("/items")
+	public interface CrudResource<T> {
+		@PUT
+		@Path("/{id}")
+		void put(@PathParam("id") String id, T body);
+	}
+	
+	public class StringCrudApi implements CrudResource<String> {
+		public void put(String id, String body) {}
+	}
+	
+	@Path("/orders")
+	public interface OrderResource {
+		@Path("/{orderId}/items")
+		@IoDocsName("orderItems")
+		ItemApi items(@PathParam("orderId") String orderId);
+	}
+	
+	public class OrderApi implements OrderResource {
+		public ItemApi items(String orderId) { return null; }
+		
+		@Path("/self")
+		public OrderApi self() { return this; }
+	}
+	
+	@Path("/overriding")
+	public interface OverriddenResource {
+		@GET
+		@IoDocsName("fromInterface")
+		void get(
+			@QueryParam("q") 
+			@Description("Interface description") 
+			@IoDocsDefaultString("interface") 
+			String q);
+	}
+	
+	public class OverridingApi implements OverriddenResource {
+		@IoDocsName("fromImpl")
+		public void get(
+			@Description("Impl description") 
+			@IoDocsDefaultString("impl") 
+			String q) {}
+	}
+	
+	@Path("/baskets")
+	public class BasketApi {
+		@Path("/{basketId}/items")
+		public ItemApi items(@PathParam("basketId") String basketId) { return null; }
+	}
+	
+	public class ItemApi {
+		@GET
+		@Path("/{itemId}")
+		@IoDocsName("get")
+		public void get(@PathParam("itemId") String itemId) {}
+		
+		@PUT
+		@Path("/{itemId}")
+		public void update(@PathParam("itemId") String itemId, Object item) {}
+	}
+	
+	@Path("/entitled")
+	public class EntitledApi {
+		@GET
+		@IoDocsEntitlement({"premium", "enterprise"})
+		public void report() {}
+	}
+	
 	@Path("/resource")
 	public class HeaderApi {
 		@GET
@@ -194,6 +789,29 @@ public class IoDocsTest {
 		public void create(String bodyData) {}
 	}
 	
+	/**
+	 * Counts the calls to the generator's reflection over the endpoints
+	 */
+	private static class ReflectionCountingGenerator extends IoDocsCachingGenerator {
+		private int reflections = 0;
+		
+		public ReflectionCountingGenerator(File cacheDirectory) {
+			super(cacheDirectory);
+		}
+		
+		@Override
+		ListMultimap<Class<?>, IoDocsMethod> getMethods(Class<?>[] endpoints, IoDocsLinter linter) {
+			reflections++;
+			return super.getMethods(endpoints, linter);
+		}
+		
+		@Override
+		SortedMap<String, Class<?>> getResourceClasses(Class<?>[] endpoints) {
+			reflections++;
+			return super.getResourceClasses(endpoints);
+		}
+	}
+	
 	public static String loadClasspathResourceAsString(String filename) {
 		try {
 			return IOUtils.toString(ClassLoader.getSystemResourceAsStream(filename), "UTF-8");